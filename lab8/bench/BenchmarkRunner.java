@@ -0,0 +1,28 @@
+package bench;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks in this package and writes the results as JSON.
+ *
+ * Usage: java bench.BenchmarkRunner [regex] [output file]
+ * The regex selects benchmarks (default: everything in this package), and the
+ * output file defaults to target/jmh-result.json.
+ */
+public class BenchmarkRunner {
+    public static void main(String[] args) throws RunnerException {
+        String include = args.length > 0 ? args[0] : BenchmarkRunner.class.getPackageName() + ".*";
+        String output = args.length > 1 ? args[1] : "target/jmh-result.json";
+
+        Options opt = new OptionsBuilder()
+                .include(include)
+                .resultFormat(ResultFormatType.JSON)
+                .result(output)
+                .build();
+        new Runner(opt).run();
+    }
+}
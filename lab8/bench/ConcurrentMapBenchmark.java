@@ -0,0 +1,83 @@
+package bench;
+
+import hashmap.ConcurrentMyHashMap;
+import hashmap.Map61B;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Contention benchmarks for the thread-safe maps: every thread runs a mix of
+ * get and put on random keys of one shared, prefilled map. Run with
+ * "-t 1", "-t 2", "-t 4", ... to see how throughput scales with threads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class ConcurrentMapBenchmark {
+    private static final int KEYS = 1 << 16;
+
+    @Param({"ConcurrentMyHashMap", "ConcurrentHashMap", "SynchronizedHashMap"})
+    public String impl;
+
+    /** Percentage of operations that are get()s; the rest are put()s. */
+    @Param({"50", "90", "99"})
+    public int readPercent;
+
+    private Map61B<Integer, Integer> map;
+    private Integer[] keys;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        switch (impl) {
+            case "ConcurrentMyHashMap":
+                map = new ConcurrentMyHashMap<>();
+                break;
+            case "ConcurrentHashMap":
+                map = new JdkMap<>(new ConcurrentHashMap<>());
+                break;
+            case "SynchronizedHashMap":
+                map = new JdkMap<>(Collections.synchronizedMap(new HashMap<>()));
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown map: " + impl);
+        }
+        keys = new Integer[KEYS];
+        for (int i = 0; i < KEYS; i++) {
+            keys[i] = i;
+            map.put(keys[i], keys[i]);
+        }
+    }
+
+    /** readPercent% get()s, the rest put()s, on keys that are all present. */
+    @Benchmark
+    public Integer mixed() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Integer key = keys[random.nextInt(KEYS)];
+        if (random.nextInt(100) < readPercent) {
+            return map.get(key);
+        }
+        map.put(key, key);
+        return key;
+    }
+}
@@ -0,0 +1,64 @@
+package bench;
+
+import hashmap.Map61B;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Adapts a java.util.Map to our Map61B interface so that it can be used as a
+ * baseline in the benchmarks.
+ */
+public class JdkMap<K, V> implements Map61B<K, V> {
+    private final Map<K, V> map;
+
+    public JdkMap(Map<K, V> map) {
+        this.map = map;
+    }
+
+    @Override
+    public void clear() {
+        map.clear();
+    }
+
+    @Override
+    public boolean containsKey(K key) {
+        return map.containsKey(key);
+    }
+
+    @Override
+    public V get(K key) {
+        return map.get(key);
+    }
+
+    @Override
+    public int size() {
+        return map.size();
+    }
+
+    @Override
+    public void put(K key, V value) {
+        map.put(key, value);
+    }
+
+    @Override
+    public Set<K> keySet() {
+        return map.keySet();
+    }
+
+    @Override
+    public V remove(K key) {
+        return map.remove(key);
+    }
+
+    @Override
+    public V remove(K key, V value) {
+        return map.remove(key, value) ? value : null;
+    }
+
+    @Override
+    public Iterator<K> iterator() {
+        return map.keySet().iterator();
+    }
+}
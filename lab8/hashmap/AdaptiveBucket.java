@@ -0,0 +1,235 @@
+package hashmap;
+
+import java.util.AbstractCollection;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+/**
+ * A hash table bucket that is a small array while it is short and becomes a
+ * red-black tree, keyed by the elements' keys, once it holds more than
+ * TREEIFY_THRESHOLD elements, as java.util.HashMap's bins do. A bucket only
+ * grows that long when many keys collide, for instance under a flood of keys
+ * chosen to share a hash code, and the tree keeps find() at O(log n) then
+ * instead of O(n). Short buckets pay for neither tree nodes nor comparisons.
+ *
+ * The tree orders keys by compareTo, so a bucket only becomes one while all
+ * of its keys are Comparable and of the same class; a bucket of mixed keys
+ * stays an array. It goes back to being an array once it shrinks below
+ * UNTREEIFY_THRESHOLD; the gap between the thresholds keeps a bucket that
+ * hovers around one of them from converting back and forth.
+ *
+ * Keys that compareTo calls equal need not be equals, as with BigDecimal's
+ * 1.0 and 1.00, so each tree entry holds every element whose key compares
+ * equal to it, and find() picks among them by equals. Elements are assumed
+ * to have distinct keys.
+ */
+class AdaptiveBucket<E> extends AbstractCollection<E> {
+    static final int TREEIFY_THRESHOLD = 8;
+    static final int UNTREEIFY_THRESHOLD = 6;
+    private static final int INITIAL_CAPACITY = 2;
+
+    private final Function<? super E, ?> keyOf;
+    /* The elements while the bucket is an array, in items[0..size - 1]. */
+    private E[] items;
+    /* The elements while the bucket is a tree, else null, grouped under the
+     * first key added that compares equal to theirs. */
+    private TreeMap<Object, List<E>> tree;
+    private int size;
+    /* The class shared by every key added since the bucket was last empty,
+     * or null once a key was not Comparable or had a different class. */
+    private Class<?> keyClass;
+
+    /** Creates an empty bucket whose elements have the keys KEYOF returns. */
+    AdaptiveBucket(Function<? super E, ?> keyOf) {
+        this.keyOf = keyOf;
+        items = (E[]) new Object[INITIAL_CAPACITY];
+    }
+
+    /** Returns the element whose key equals KEY, or null. */
+    E find(Object key) {
+        if (tree != null) {
+            /* Every key in the tree is a keyClass, and others won't compare. */
+            if (key.getClass() != keyClass) {
+                return null;
+            }
+            List<E> group = tree.get(key);
+            if (group != null) {
+                for (E e : group) {
+                    if (keyOf.apply(e).equals(key)) {
+                        return e;
+                    }
+                }
+            }
+            return null;
+        }
+        for (int i = 0; i < size; i++) {
+            if (keyOf.apply(items[i]).equals(key)) {
+                return items[i];
+            }
+        }
+        return null;
+    }
+
+    /** Returns whether the bucket is currently a tree. */
+    boolean isTree() {
+        return tree != null;
+    }
+
+    /** Adds E, whose key must not already be in the bucket. */
+    @Override
+    public boolean add(E e) {
+        Object key = keyOf.apply(e);
+        if (size == 0) {
+            keyClass = key instanceof Comparable ? key.getClass() : null;
+        } else if (key.getClass() != keyClass) {
+            keyClass = null;
+        }
+        if (tree != null && keyClass == null) {
+            untreeify();
+        }
+        if (tree != null) {
+            addToTree(key, e);
+        } else {
+            if (size == items.length) {
+                items = Arrays.copyOf(items, size * 2);
+            }
+            items[size] = e;
+        }
+        size += 1;
+        if (tree == null && size > TREEIFY_THRESHOLD && keyClass != null) {
+            treeify();
+        }
+        return true;
+    }
+
+    /** Removes the element O, if it is in the bucket. */
+    @Override
+    public boolean remove(Object o) {
+        if (tree != null) {
+            Object key = keyOf.apply((E) o);
+            List<E> group = key.getClass() == keyClass ? tree.get(key) : null;
+            if (group == null || !removeSame(group, o)) {
+                return false;
+            }
+            if (group.isEmpty()) {
+                tree.remove(key);
+            }
+            size -= 1;
+            if (size < UNTREEIFY_THRESHOLD) {
+                untreeify();
+            }
+            return true;
+        }
+        for (int i = 0; i < size; i++) {
+            if (items[i] == o) {
+                size -= 1;
+                items[i] = items[size];
+                items[size] = null;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void addToTree(Object key, E e) {
+        List<E> group = tree.get(key);
+        if (group == null) {
+            group = new ArrayList<>(1);
+            tree.put(key, group);
+        }
+        group.add(e);
+    }
+
+    /** Removes O itself, not just an equal element, from GROUP. */
+    private static boolean removeSame(List<?> group, Object o) {
+        for (int i = 0; i < group.size(); i++) {
+            if (group.get(i) == o) {
+                group.remove(i);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void treeify() {
+        tree = new TreeMap<>();
+        for (int i = 0; i < size; i++) {
+            addToTree(keyOf.apply(items[i]), items[i]);
+        }
+        items = null;
+    }
+
+    private void untreeify() {
+        items = (E[]) new Object[Math.max(INITIAL_CAPACITY, size * 2)];
+        int i = 0;
+        for (List<E> group : tree.values()) {
+            for (E e : group) {
+                items[i] = e;
+                i += 1;
+            }
+        }
+        tree = null;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        if (tree != null) {
+            return new TreeIterator();
+        }
+        return new ArrayIterator();
+    }
+
+    private class TreeIterator implements Iterator<E> {
+        private final Iterator<List<E>> groups = tree.values().iterator();
+        private List<E> group = List.of();
+        private int wizPos;
+
+        @Override
+        public boolean hasNext() {
+            while (wizPos == group.size() && groups.hasNext()) {
+                group = groups.next();
+                wizPos = 0;
+            }
+            return wizPos < group.size();
+        }
+
+        @Override
+        public E next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            E item = group.get(wizPos);
+            wizPos += 1;
+            return item;
+        }
+    }
+
+    private class ArrayIterator implements Iterator<E> {
+        private int wizPos;
+
+        @Override
+        public boolean hasNext() {
+            return wizPos < size;
+        }
+
+        @Override
+        public E next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            E item = items[wizPos];
+            wizPos += 1;
+            return item;
+        }
+    }
+}
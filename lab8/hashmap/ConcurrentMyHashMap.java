@@ -0,0 +1,452 @@
+package hashmap;
+
+import java.util.AbstractCollection;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ *  A thread-safe hash table-backed Map built from the same Collection buckets
+ *  as MyHashMap, made with the createBucket() factory.
+ *
+ *  Buckets are copy-on-write: once a bucket is stored in the table it is
+ *  never modified, and a writer replaces it with an updated copy instead.
+ *  get() and containsKey() therefore take no lock at all; they read a bucket
+ *  out of an AtomicReferenceArray and search a collection nobody is changing.
+ *  Writers lock one of STRIPES locks, chosen by the low bits of the key's
+ *  hash, so writers to different stripes proceed in parallel.
+ *
+ *  Resizing is cooperative. The thread that pushes the map over its load
+ *  factor allocates the next table, and from then on every writer that runs
+ *  into the resize claims a chunk of TRANSFER_CHUNK buckets and moves them
+ *  before doing its own work. A moved bucket is replaced in the old table by
+ *  a forwarding bucket that points readers and writers to the new table.
+ *
+ *  Each stripe counts its own keys under its lock. An insert that leaves its
+ *  stripe holding more than 1 / STRIPES of the load limit sums the shared
+ *  size counter and starts a resize if the map is over the limit. If the
+ *  total is over, some stripe is over its share, so the check never goes
+ *  quiet for long, and inserts into stripes below their share cost no
+ *  shared reads.
+ *
+ *  iterator() and keySet() are weakly consistent: they see every key that
+ *  was present for the whole traversal, and may or may not see keys added
+ *  or removed during it. clear() empties one bucket at a time.
+ *
+ *  Assumes null keys will never be inserted, and does not resize down upon remove().
+ */
+public class ConcurrentMyHashMap<K, V> implements Map61B<K, V> {
+    private static final int DEFAULT_SIZE = 16;
+    private static final double DEFAULT_MAX_LOAD = 0.75;
+    /* Number of write locks. Every table has at least this many buckets, so
+     * that all the keys of a bucket, in any table, share a lock. */
+    private static final int STRIPES = 16;
+    /* Buckets claimed at a time by a thread helping with a resize. */
+    private static final int TRANSFER_CHUNK = 16;
+    /* Ints per stripe count, a 64-byte cache line. */
+    private static final int STRIPE_PAD = 16;
+
+    /**
+     * Protected helper class to store key/value pairs
+     * The protected qualifier allows subclass access
+     */
+    protected class Node {
+        final K key;
+        final V value;
+
+        Node(K k, V v) {
+            key = k;
+            value = v;
+        }
+    }
+
+    /* Stands in the old table for a bucket that has been moved to NEXT. */
+    private final class ForwardingBucket extends AbstractCollection<Node> {
+        final AtomicReferenceArray<Collection<Node>> next;
+
+        ForwardingBucket(AtomicReferenceArray<Collection<Node>> next) {
+            this.next = next;
+        }
+
+        @Override
+        public Iterator<Node> iterator() {
+            return Collections.emptyIterator();
+        }
+
+        @Override
+        public int size() {
+            return 0;
+        }
+    }
+
+    /* A resize in progress from one table to the next. */
+    private final class Resize {
+        final AtomicReferenceArray<Collection<Node>> from;
+        final AtomicReferenceArray<Collection<Node>> to;
+        /* First bucket of from that no thread has claimed yet. */
+        final AtomicInteger nextChunk = new AtomicInteger();
+        /* Buckets of from not yet moved. */
+        final AtomicInteger remaining;
+        final ForwardingBucket forward;
+
+        Resize(AtomicReferenceArray<Collection<Node>> from) {
+            this.from = from;
+            to = createTable(from.length() * 2);
+            remaining = new AtomicInteger(from.length());
+            forward = new ForwardingBucket(to);
+        }
+    }
+
+    /* Instance Variables */
+    private volatile AtomicReferenceArray<Collection<Node>> table;
+    private volatile Resize resize;
+    private final ReentrantLock[] locks;
+    private final LongAdder size = new LongAdder();
+    /* Keys per stripe, each guarded by its stripe's lock. Stripe s counts in
+     * stripeSizes[s * STRIPE_PAD], so that two stripes' counts don't share a
+     * cache line. */
+    private final int[] stripeSizes = new int[STRIPES * STRIPE_PAD];
+    private final double maxLoad;
+
+    /** Constructors */
+    public ConcurrentMyHashMap() {
+        this(DEFAULT_SIZE, DEFAULT_MAX_LOAD);
+    }
+
+    public ConcurrentMyHashMap(int initialSize) {
+        this(initialSize, DEFAULT_MAX_LOAD);
+    }
+
+    /**
+     * ConcurrentMyHashMap constructor that creates a backing array of at
+     * least initialSize buckets, rounded up to a power of two no smaller
+     * than STRIPES. The load factor (# items / # buckets) should stay
+     * around maxLoad. It can run over while a resize is under way, and,
+     * with hash codes that crowd a few stripes, until the next insert into
+     * one of those.
+     *
+     * @param initialSize initial size of backing array
+     * @param maxLoad maximum load factor
+     */
+    public ConcurrentMyHashMap(int initialSize, double maxLoad) {
+        if (maxLoad <= 0) {
+            throw new IllegalArgumentException("maxLoad must be positive: " + maxLoad);
+        }
+        this.maxLoad = maxLoad;
+        int capacity = STRIPES;
+        while (capacity < initialSize) {
+            capacity *= 2;
+        }
+        table = createTable(capacity);
+        locks = new ReentrantLock[STRIPES];
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Returns a new node to be placed in a hash table bucket
+     */
+    private Node createNode(K key, V value) {
+        return new Node(key, value);
+    }
+
+    /**
+     * Returns a data structure to be a hash table bucket. Override this
+     * method to use a different data structure as the bucket type, exactly
+     * as with MyHashMap. Buckets are filled before they are published and
+     * never modified afterwards, so they need not be thread-safe. Every
+     * write makes a new bucket, and most hold one or two nodes, so the
+     * default starts small.
+     */
+    protected Collection<Node> createBucket() {
+        return new ArrayList<>(2);
+    }
+
+    /**
+     * Returns a table to back our hash table. Empty buckets are null.
+     *
+     * @param tableSize the size of the table to create
+     */
+    private AtomicReferenceArray<Collection<Node>> createTable(int tableSize) {
+        return new AtomicReferenceArray<>(tableSize);
+    }
+
+    private static int hash(Object key) {
+        int h = key.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    private ReentrantLock lockFor(int h) {
+        return locks[h & (STRIPES - 1)];
+    }
+
+    /* Returns the node for KEY, or null. Takes no locks. */
+    private Node find(K key) {
+        int h = hash(key);
+        AtomicReferenceArray<Collection<Node>> tab = table;
+        while (true) {
+            Collection<Node> bucket = tab.get(h & (tab.length() - 1));
+            if (bucket instanceof ConcurrentMyHashMap.ForwardingBucket) {
+                tab = ((ForwardingBucket) bucket).next;
+                continue;
+            }
+            if (bucket != null) {
+                for (Node n : bucket) {
+                    if (n.key.equals(key)) {
+                        return n;
+                    }
+                }
+            }
+            return null;
+        }
+    }
+
+    @Override
+    public boolean containsKey(K key) {
+        return find(key) != null;
+    }
+
+    @Override
+    public V get(K key) {
+        Node n = find(key);
+        return n == null ? null : n.value;
+    }
+
+    @Override
+    public int size() {
+        return (int) Math.max(0, size.sum());
+    }
+
+    /** Returns the number of buckets in the current table. */
+    int capacity() {
+        return table.length();
+    }
+
+    @Override
+    public void put(K key, V value) {
+        update(key, value, false, false);
+    }
+
+    @Override
+    public V remove(K key) {
+        return update(key, null, true, false);
+    }
+
+    @Override
+    public V remove(K key, V value) {
+        V old = update(key, value, true, true);
+        return Objects.equals(old, value) ? old : null;
+    }
+
+    /**
+     * Maps KEY to VALUE or, if REMOVE, removes KEY; if also CONDITIONAL,
+     * only while KEY maps to VALUE. Returns the value KEY mapped to before.
+     */
+    private V update(K key, V value, boolean remove, boolean conditional) {
+        int h = hash(key);
+        ReentrantLock lock = lockFor(h);
+        AtomicReferenceArray<Collection<Node>> tab = table;
+        while (true) {
+            AtomicReferenceArray<Collection<Node>> next = null;
+            boolean crowded = false;
+            V old = null;
+            lock.lock();
+            try {
+                int i = h & (tab.length() - 1);
+                Collection<Node> bucket = tab.get(i);
+                if (bucket instanceof ConcurrentMyHashMap.ForwardingBucket) {
+                    next = ((ForwardingBucket) bucket).next;
+                } else {
+                    Node match = null;
+                    if (bucket != null) {
+                        for (Node n : bucket) {
+                            if (n.key.equals(key)) {
+                                match = n;
+                                break;
+                            }
+                        }
+                    }
+                    if (match == null && remove) {
+                        return null;
+                    }
+                    if (match != null) {
+                        old = match.value;
+                        if (conditional && !Objects.equals(old, value)) {
+                            return old;
+                        }
+                    }
+                    Collection<Node> copy = createBucket();
+                    if (bucket != null) {
+                        for (Node n : bucket) {
+                            if (n != match) {
+                                copy.add(n);
+                            }
+                        }
+                    }
+                    if (!remove) {
+                        copy.add(createNode(key, value));
+                    }
+                    tab.set(i, copy.isEmpty() ? null : copy);
+                    int stripe = (h & (STRIPES - 1)) * STRIPE_PAD;
+                    if (match == null) {
+                        size.increment();
+                        stripeSizes[stripe] += 1;
+                        crowded = stripeSizes[stripe] * STRIPES > maxLoad * tab.length();
+                    } else if (remove) {
+                        size.decrement();
+                        stripeSizes[stripe] -= 1;
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+            if (next != null) {
+                /* The bucket has moved; help finish moving, then follow it. */
+                helpResize(tab);
+                tab = next;
+                continue;
+            }
+            if (crowded) {
+                /* Only a stripe over its share makes it worth summing the counter. */
+                maybeResize(tab);
+            }
+            return old;
+        }
+    }
+
+    /* Starts resizing TAB if the map has outgrown it and no resize is under
+     * way, then helps with the resize. */
+    private void maybeResize(AtomicReferenceArray<Collection<Node>> tab) {
+        if (tab != table || size.sum() <= maxLoad * tab.length()) {
+            return;
+        }
+        synchronized (this) {
+            if (resize == null && tab == table) {
+                resize = new Resize(tab);
+            }
+        }
+        helpResize(tab);
+    }
+
+    /* Moves chunks of buckets out of TAB, if it is being resized, until
+     * there are none left to claim. */
+    private void helpResize(AtomicReferenceArray<Collection<Node>> tab) {
+        Resize r = resize;
+        if (r == null || r.from != tab) {
+            return;
+        }
+        int n = tab.length();
+        int start;
+        while ((start = r.nextChunk.getAndAdd(TRANSFER_CHUNK)) < n) {
+            int end = Math.min(n, start + TRANSFER_CHUNK);
+            for (int i = start; i < end; i++) {
+                transfer(r, i);
+            }
+            if (r.remaining.addAndGet(-(end - start)) == 0) {
+                synchronized (this) {
+                    table = r.to;
+                    resize = null;
+                }
+            }
+        }
+    }
+
+    /* Splits bucket I of the old table between buckets I and I + n of the
+     * new one, then forwards it. Both new buckets share bucket I's lock. */
+    private void transfer(Resize r, int i) {
+        int n = r.from.length();
+        ReentrantLock lock = locks[i & (STRIPES - 1)];
+        lock.lock();
+        try {
+            Collection<Node> bucket = r.from.get(i);
+            if (bucket != null) {
+                Collection<Node> low = null;
+                Collection<Node> high = null;
+                for (Node node : bucket) {
+                    if ((hash(node.key) & n) == 0) {
+                        if (low == null) {
+                            low = createBucket();
+                        }
+                        low.add(node);
+                    } else {
+                        if (high == null) {
+                            high = createBucket();
+                        }
+                        high.add(node);
+                    }
+                }
+                r.to.set(i, low);
+                r.to.set(i + n, high);
+            }
+            r.from.set(i, r.forward);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        AtomicReferenceArray<Collection<Node>> tab = table;
+        for (int i = 0; i < tab.length(); i++) {
+            ReentrantLock lock = locks[i & (STRIPES - 1)];
+            Collection<Node> bucket;
+            lock.lock();
+            try {
+                bucket = tab.get(i);
+                if (!(bucket instanceof ConcurrentMyHashMap.ForwardingBucket)) {
+                    tab.set(i, null);
+                    if (bucket != null) {
+                        size.add(-bucket.size());
+                        stripeSizes[(i & (STRIPES - 1)) * STRIPE_PAD] -= bucket.size();
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+            if (bucket instanceof ConcurrentMyHashMap.ForwardingBucket) {
+                helpResize(tab);
+                tab = ((ForwardingBucket) bucket).next;
+                i = -1;
+            }
+        }
+    }
+
+    @Override
+    public Set<K> keySet() {
+        Set<K> set = new HashSet<>();
+        AtomicReferenceArray<Collection<Node>> tab = table;
+        for (int i = 0; i < tab.length(); i++) {
+            collectKeys(tab, i, set);
+        }
+        return set;
+    }
+
+    /* Adds the keys in bucket I of TAB to SET, following it if it has moved. */
+    private void collectKeys(AtomicReferenceArray<Collection<Node>> tab, int i, Set<K> set) {
+        Collection<Node> bucket = tab.get(i);
+        if (bucket instanceof ConcurrentMyHashMap.ForwardingBucket) {
+            AtomicReferenceArray<Collection<Node>> next = ((ForwardingBucket) bucket).next;
+            collectKeys(next, i, set);
+            collectKeys(next, i + tab.length(), set);
+        } else if (bucket != null) {
+            for (Node n : bucket) {
+                set.add(n.key);
+            }
+        }
+    }
+
+    /** Iterates over a snapshot of the keys, taken as keySet() does. */
+    @Override
+    public Iterator<K> iterator() {
+        return keySet().iterator();
+    }
+}
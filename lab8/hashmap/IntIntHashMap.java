@@ -0,0 +1,307 @@
+package hashmap;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ *  A hash map from int to int that stores its keys and values in two int
+ *  arrays, so that neither put(int, int) nor get(int) allocates or follows
+ *  a pointer. Collisions are resolved by linear probing, and remove() shifts
+ *  the following entries of the run back instead of leaving tombstones.
+ *
+ *  The Map61B methods box and unbox at the boundary. Use the int overloads,
+ *  getOrDefault and addTo to avoid that; get(int) returns 0 for a missing key.
+ *
+ *  Does not resize down upon remove().
+ */
+public class IntIntHashMap implements Map61B<Integer, Integer> {
+    private static final int DEFAULT_SIZE = 16;
+    private static final double DEFAULT_MAX_LOAD = 0.75;
+
+    /* keys[i] == 0 marks slot i of the table as empty. The key 0 itself is
+     * kept in the extra slot at index capacity, in use iff hasZeroKey. */
+    private int[] keys;
+    private int[] values;
+    private int mask;
+    private boolean hasZeroKey;
+    private int size;
+    /* Resize once size goes past this. */
+    private int threshold;
+    private final double maxLoad;
+
+    /** Constructors */
+    public IntIntHashMap() {
+        this(DEFAULT_SIZE, DEFAULT_MAX_LOAD);
+    }
+
+    public IntIntHashMap(int initialSize) {
+        this(initialSize, DEFAULT_MAX_LOAD);
+    }
+
+    /**
+     * IntIntHashMap constructor that creates a table of at least initialSize
+     * slots. The load factor (# items / # slots) should always be <= maxLoad,
+     * which must be below 1.
+     *
+     * @param initialSize initial size of backing arrays
+     * @param maxLoad maximum load factor
+     */
+    public IntIntHashMap(int initialSize, double maxLoad) {
+        if (maxLoad <= 0 || maxLoad >= 1) {
+            throw new IllegalArgumentException("maxLoad must be in (0, 1): " + maxLoad);
+        }
+        this.maxLoad = maxLoad;
+        int capacity = 2;
+        while (capacity < initialSize) {
+            capacity *= 2;
+        }
+        allocate(capacity);
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity + 1];
+        values = new int[capacity + 1];
+        mask = capacity - 1;
+        threshold = (int) Math.min(capacity - 1, capacity * maxLoad);
+    }
+
+    /* Scrambles KEY so that runs of consecutive ids spread over the table. */
+    private static int mix(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /* Returns the slot holding KEY, or -(the slot it would go in) - 1. */
+    private int slot(int key) {
+        if (key == 0) {
+            return hasZeroKey ? mask + 1 : -(mask + 1) - 1;
+        }
+        int i = mix(key) & mask;
+        while (keys[i] != 0) {
+            if (keys[i] == key) {
+                return i;
+            }
+            i = (i + 1) & mask;
+        }
+        return -i - 1;
+    }
+
+    private void insert(int i, int key, int value) {
+        keys[i] = key;
+        values[i] = value;
+        if (key == 0) {
+            hasZeroKey = true;
+        }
+        size += 1;
+        if (size > threshold) {
+            resize(2 * (mask + 1));
+        }
+    }
+
+    private void resize(int capacity) {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        int oldZero = mask + 1;
+        allocate(capacity);
+        for (int j = 0; j < oldZero; j++) {
+            int key = oldKeys[j];
+            if (key != 0) {
+                int i = mix(key) & mask;
+                while (keys[i] != 0) {
+                    i = (i + 1) & mask;
+                }
+                keys[i] = key;
+                values[i] = oldValues[j];
+            }
+        }
+        values[mask + 1] = oldValues[oldZero];
+    }
+
+    /* Empties slot HOLE of the table, then walks the rest of its run and
+     * moves back into the hole every entry that may legally sit there, that
+     * is, whose home slot is not between the hole and the entry. */
+    private void deleteSlot(int hole) {
+        int i = hole;
+        while (true) {
+            i = (i + 1) & mask;
+            int key = keys[i];
+            if (key == 0) {
+                break;
+            }
+            int home = mix(key) & mask;
+            if (((i - home) & mask) >= ((i - hole) & mask)) {
+                keys[hole] = key;
+                values[hole] = values[i];
+                hole = i;
+            }
+        }
+        keys[hole] = 0;
+        size -= 1;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(keys, 0);
+        hasZeroKey = false;
+        size = 0;
+    }
+
+    public boolean containsKey(int key) {
+        return slot(key) >= 0;
+    }
+
+    @Override
+    public boolean containsKey(Integer key) {
+        return key != null && containsKey(key.intValue());
+    }
+
+    /** Returns the value KEY maps to, or 0 if there is none. */
+    public int get(int key) {
+        return getOrDefault(key, 0);
+    }
+
+    /** Returns the value KEY maps to, or DEFAULTVALUE if there is none. */
+    public int getOrDefault(int key, int defaultValue) {
+        int i = slot(key);
+        return i < 0 ? defaultValue : values[i];
+    }
+
+    @Override
+    public Integer get(Integer key) {
+        int i = key == null ? -1 : slot(key);
+        return i < 0 ? null : values[i];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    public void put(int key, int value) {
+        int i = slot(key);
+        if (i >= 0) {
+            values[i] = value;
+        } else {
+            insert(-i - 1, key, value);
+        }
+    }
+
+    @Override
+    public void put(Integer key, Integer value) {
+        put(key.intValue(), value.intValue());
+    }
+
+    /**
+     * Adds INCREMENT to the value KEY maps to, treating a missing key as
+     * mapped to 0, and returns the new value.
+     */
+    public int addTo(int key, int increment) {
+        int i = slot(key);
+        if (i >= 0) {
+            values[i] += increment;
+            return values[i];
+        }
+        insert(-i - 1, key, increment);
+        return increment;
+    }
+
+    @Override
+    public Set<Integer> keySet() {
+        Set<Integer> set = new HashSet<>();
+        for (Integer key : this) {
+            set.add(key);
+        }
+        return set;
+    }
+
+    /** Removes KEY and returns the value it mapped to, or 0 if there was none. */
+    public int remove(int key) {
+        int i = slot(key);
+        if (i < 0) {
+            return 0;
+        }
+        int old = values[i];
+        removeSlot(i);
+        return old;
+    }
+
+    /** Removes KEY only if it maps to VALUE, and returns whether it did. */
+    public boolean remove(int key, int value) {
+        int i = slot(key);
+        if (i < 0 || values[i] != value) {
+            return false;
+        }
+        removeSlot(i);
+        return true;
+    }
+
+    @Override
+    public Integer remove(Integer key) {
+        int i = key == null ? -1 : slot(key);
+        if (i < 0) {
+            return null;
+        }
+        int old = values[i];
+        removeSlot(i);
+        return old;
+    }
+
+    @Override
+    public Integer remove(Integer key, Integer value) {
+        if (key == null || value == null) {
+            return null;
+        }
+        return remove(key.intValue(), value.intValue()) ? value : null;
+    }
+
+    private void removeSlot(int i) {
+        if (i == mask + 1) {
+            hasZeroKey = false;
+            size -= 1;
+        } else {
+            deleteSlot(i);
+        }
+    }
+
+    @Override
+    public Iterator<Integer> iterator() {
+        return new KeyIterator();
+    }
+
+    /** Iterates over the keys in slot order, with 0 last if present. */
+    private class KeyIterator implements Iterator<Integer> {
+        private int slot;
+
+        KeyIterator() {
+            slot = advance(0);
+        }
+
+        private int advance(int i) {
+            while (i <= mask && keys[i] == 0) {
+                i += 1;
+            }
+            if (i == mask + 1 && !hasZeroKey) {
+                i += 1;
+            }
+            return i;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return slot <= mask + 1;
+        }
+
+        @Override
+        public Integer next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            int key = keys[slot];
+            slot = advance(slot + 1);
+            return key;
+        }
+    }
+}
@@ -0,0 +1,277 @@
+package hashmap;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ *  A hash map from long to V that stores its keys in a long array, so that
+ *  put(long, V) and get(long) neither box the key nor allocate a node.
+ *  Collisions are resolved by linear probing, and remove() shifts the
+ *  following entries of the run back instead of leaving tombstones.
+ *
+ *  The Map61B methods box and unbox the key at the boundary; use the long
+ *  overloads to avoid that.
+ *
+ *  Does not resize down upon remove().
+ */
+public class LongObjectHashMap<V> implements Map61B<Long, V> {
+    private static final int DEFAULT_SIZE = 16;
+    private static final double DEFAULT_MAX_LOAD = 0.75;
+
+    /* keys[i] == 0 marks slot i of the table as empty. The key 0 itself is
+     * kept in the extra slot at index capacity, in use iff hasZeroKey. */
+    private long[] keys;
+    private V[] values;
+    private int mask;
+    private boolean hasZeroKey;
+    private int size;
+    /* Resize once size goes past this. */
+    private int threshold;
+    private final double maxLoad;
+
+    /** Constructors */
+    public LongObjectHashMap() {
+        this(DEFAULT_SIZE, DEFAULT_MAX_LOAD);
+    }
+
+    public LongObjectHashMap(int initialSize) {
+        this(initialSize, DEFAULT_MAX_LOAD);
+    }
+
+    /**
+     * LongObjectHashMap constructor that creates a table of at least
+     * initialSize slots. The load factor (# items / # slots) should always
+     * be <= maxLoad, which must be below 1.
+     *
+     * @param initialSize initial size of backing arrays
+     * @param maxLoad maximum load factor
+     */
+    public LongObjectHashMap(int initialSize, double maxLoad) {
+        if (maxLoad <= 0 || maxLoad >= 1) {
+            throw new IllegalArgumentException("maxLoad must be in (0, 1): " + maxLoad);
+        }
+        this.maxLoad = maxLoad;
+        int capacity = 2;
+        while (capacity < initialSize) {
+            capacity *= 2;
+        }
+        allocate(capacity);
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity + 1];
+        values = (V[]) new Object[capacity + 1];
+        mask = capacity - 1;
+        threshold = (int) Math.min(capacity - 1, capacity * maxLoad);
+    }
+
+    /* Scrambles KEY so that runs of consecutive ids spread over the table. */
+    private static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    /* Returns the slot holding KEY, or -(the slot it would go in) - 1. */
+    private int slot(long key) {
+        if (key == 0) {
+            return hasZeroKey ? mask + 1 : -(mask + 1) - 1;
+        }
+        int i = mix(key) & mask;
+        while (keys[i] != 0) {
+            if (keys[i] == key) {
+                return i;
+            }
+            i = (i + 1) & mask;
+        }
+        return -i - 1;
+    }
+
+    private void insert(int i, long key, V value) {
+        keys[i] = key;
+        values[i] = value;
+        if (key == 0) {
+            hasZeroKey = true;
+        }
+        size += 1;
+        if (size > threshold) {
+            resize(2 * (mask + 1));
+        }
+    }
+
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+        V[] oldValues = values;
+        int oldZero = mask + 1;
+        allocate(capacity);
+        for (int j = 0; j < oldZero; j++) {
+            long key = oldKeys[j];
+            if (key != 0) {
+                int i = mix(key) & mask;
+                while (keys[i] != 0) {
+                    i = (i + 1) & mask;
+                }
+                keys[i] = key;
+                values[i] = oldValues[j];
+            }
+        }
+        values[mask + 1] = oldValues[oldZero];
+    }
+
+    /* Empties slot HOLE of the table, then walks the rest of its run and
+     * moves back into the hole every entry that may legally sit there, that
+     * is, whose home slot is not between the hole and the entry. */
+    private void deleteSlot(int hole) {
+        int i = hole;
+        while (true) {
+            i = (i + 1) & mask;
+            long key = keys[i];
+            if (key == 0) {
+                break;
+            }
+            int home = mix(key) & mask;
+            if (((i - home) & mask) >= ((i - hole) & mask)) {
+                keys[hole] = key;
+                values[hole] = values[i];
+                hole = i;
+            }
+        }
+        keys[hole] = 0;
+        values[hole] = null;
+        size -= 1;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(keys, 0);
+        Arrays.fill(values, null);
+        hasZeroKey = false;
+        size = 0;
+    }
+
+    public boolean containsKey(long key) {
+        return slot(key) >= 0;
+    }
+
+    @Override
+    public boolean containsKey(Long key) {
+        return key != null && containsKey(key.longValue());
+    }
+
+    /** Returns the value KEY maps to, or null if there is none. */
+    public V get(long key) {
+        int i = slot(key);
+        return i < 0 ? null : values[i];
+    }
+
+    @Override
+    public V get(Long key) {
+        return key == null ? null : get(key.longValue());
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    public void put(long key, V value) {
+        int i = slot(key);
+        if (i >= 0) {
+            values[i] = value;
+        } else {
+            insert(-i - 1, key, value);
+        }
+    }
+
+    @Override
+    public void put(Long key, V value) {
+        put(key.longValue(), value);
+    }
+
+    @Override
+    public Set<Long> keySet() {
+        Set<Long> set = new HashSet<>();
+        for (Long key : this) {
+            set.add(key);
+        }
+        return set;
+    }
+
+    /** Removes KEY and returns the value it mapped to, or null if there was none. */
+    public V remove(long key) {
+        int i = slot(key);
+        if (i < 0) {
+            return null;
+        }
+        V old = values[i];
+        removeSlot(i);
+        return old;
+    }
+
+    @Override
+    public V remove(Long key) {
+        return key == null ? null : remove(key.longValue());
+    }
+
+    @Override
+    public V remove(Long key, V value) {
+        int i = key == null ? -1 : slot(key);
+        if (i < 0 || !Objects.equals(values[i], value)) {
+            return null;
+        }
+        removeSlot(i);
+        return value;
+    }
+
+    private void removeSlot(int i) {
+        if (i == mask + 1) {
+            hasZeroKey = false;
+            values[i] = null;
+            size -= 1;
+        } else {
+            deleteSlot(i);
+        }
+    }
+
+    @Override
+    public Iterator<Long> iterator() {
+        return new KeyIterator();
+    }
+
+    /** Iterates over the keys in slot order, with 0 last if present. */
+    private class KeyIterator implements Iterator<Long> {
+        private int slot;
+
+        KeyIterator() {
+            slot = advance(0);
+        }
+
+        private int advance(int i) {
+            while (i <= mask && keys[i] == 0) {
+                i += 1;
+            }
+            if (i == mask + 1 && !hasZeroKey) {
+                i += 1;
+            }
+            return i;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return slot <= mask + 1;
+        }
+
+        @Override
+        public Long next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            long key = keys[slot];
+            slot = advance(slot + 1);
+            return key;
+        }
+    }
+}
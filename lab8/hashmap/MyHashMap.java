@@ -1,11 +1,24 @@
 package hashmap;
 
 import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.Objects;
+import java.util.Set;
 
 /**
  *  A hash table-backed Map implementation. Provides amortized constant time
  *  access to elements via get(), remove(), and put() in the best case.
  *
+ *  Resizing is incremental, as in Redis's dict: once the load factor passes
+ *  maxLoad, a table twice the size is created and the old one is kept, and
+ *  every later operation moves up to REHASH_STEPS buckets from the old table
+ *  to the new one. Until the old table is empty, lookups search both tables
+ *  and new entries go in the new one. No single put() pays for moving the
+ *  whole map, so resizing no longer causes a latency spike proportional to
+ *  the map's size.
+ *
  *  Assumes null keys will never be inserted, and does not resize down upon remove().
  *  @author YOUR NAME HERE
  */
@@ -25,14 +38,31 @@ public class MyHashMap<K, V> implements Map61B<K, V> {
         }
     }
 
+    private static final int DEFAULT_SIZE = 16;
+    private static final double DEFAULT_MAX_LOAD = 0.75;
+    /* Old buckets moved to the new table per operation during a resize. */
+    private static final int REHASH_STEPS = 4;
+    /* Empty old buckets one operation may skip over, per REHASH_STEPS. */
+    private static final int EMPTY_VISITS = 10;
+
     /* Instance Variables */
+    /* Buckets are created on first use; an empty slot is null. */
     private Collection<Node>[] buckets;
-    // You should probably define some more!
+    /* The table being moved out of during a resize, or null. Its buckets
+     * below rehashIndex have been moved already and are null. */
+    private Collection<Node>[] oldBuckets;
+    private int rehashIndex;
+    private int size;
+    private final double maxLoad;
 
     /** Constructors */
-    public MyHashMap() { }
+    public MyHashMap() {
+        this(DEFAULT_SIZE, DEFAULT_MAX_LOAD);
+    }
 
-    public MyHashMap(int initialSize) { }
+    public MyHashMap(int initialSize) {
+        this(initialSize, DEFAULT_MAX_LOAD);
+    }
 
     /**
      * MyHashMap constructor that creates a backing array of initialSize.
@@ -41,13 +71,21 @@ public class MyHashMap<K, V> implements Map61B<K, V> {
      * @param initialSize initial size of backing array
      * @param maxLoad maximum load factor
      */
-    public MyHashMap(int initialSize, double maxLoad) { }
+    public MyHashMap(int initialSize, double maxLoad) {
+        if (initialSize < 1 || maxLoad <= 0) {
+            throw new IllegalArgumentException("Bad initialSize " + initialSize
+                + " or maxLoad " + maxLoad);
+        }
+        this.maxLoad = maxLoad;
+        buckets = createTable(initialSize);
+        size = 0;
+    }
 
     /**
      * Returns a new node to be placed in a hash table bucket
      */
     private Node createNode(K key, V value) {
-        return null;
+        return new Node(key, value);
     }
 
     /**
@@ -69,7 +107,7 @@ public class MyHashMap<K, V> implements Map61B<K, V> {
      * OWN BUCKET DATA STRUCTURES WITH THE NEW OPERATOR!
      */
     protected Collection<Node> createBucket() {
-        return null;
+        return new LinkedList<>();
     }
 
     /**
@@ -79,13 +117,204 @@ public class MyHashMap<K, V> implements Map61B<K, V> {
      * BE SURE TO CALL THIS FACTORY METHOD WHEN CREATING A TABLE SO
      * THAT ALL BUCKET TYPES ARE OF JAVA.UTIL.COLLECTION
      *
+     * The buckets themselves are made by createBucket() when a key first
+     * lands in them, so a new table costs no more than the array.
+     *
      * @param tableSize the size of the table to create
      */
     private Collection<Node>[] createTable(int tableSize) {
+        return new Collection[tableSize];
+    }
+
+    private static int indexFor(Object key, int tableSize) {
+        int h = key.hashCode();
+        return Math.floorMod(h ^ (h >>> 16), tableSize);
+    }
+
+    /* Moves up to REHASH_STEPS buckets out of oldBuckets, if a resize is
+     * under way, skipping at most EMPTY_VISITS empty ones per step. */
+    private void rehashStep() {
+        if (oldBuckets == null) {
+            return;
+        }
+        int moves = REHASH_STEPS;
+        int visits = REHASH_STEPS * EMPTY_VISITS;
+        while (moves > 0 && visits > 0 && rehashIndex < oldBuckets.length) {
+            Collection<Node> bucket = oldBuckets[rehashIndex];
+            oldBuckets[rehashIndex] = null;
+            rehashIndex += 1;
+            if (bucket == null) {
+                visits -= 1;
+                continue;
+            }
+            for (Node n : bucket) {
+                bucketFor(n.key).add(n);
+            }
+            moves -= 1;
+        }
+        if (rehashIndex == oldBuckets.length) {
+            oldBuckets = null;
+        }
+    }
+
+    /* Returns the bucket of the current table for KEY, creating it if needed. */
+    private Collection<Node> bucketFor(K key) {
+        int i = indexFor(key, buckets.length);
+        if (buckets[i] == null) {
+            buckets[i] = createBucket();
+        }
+        return buckets[i];
+    }
+
+    /* Returns the bucket that holds KEY, if any: the one in the old table if
+     * it has not been moved yet, else the one in the current table. */
+    private Collection<Node> bucketHolding(K key) {
+        if (oldBuckets != null) {
+            Collection<Node> old = oldBuckets[indexFor(key, oldBuckets.length)];
+            if (lookup(old, key) != null) {
+                return old;
+            }
+        }
+        return buckets[indexFor(key, buckets.length)];
+    }
+
+    /* Returns the node for KEY in BUCKET, which may be null, or null. */
+    private Node lookup(Collection<Node> bucket, K key) {
+        return bucket == null ? null : find(bucket, key);
+    }
+
+    /**
+     * Returns the node for KEY in BUCKET, or null. Scans the whole bucket;
+     * override this method along with createBucket() to use a bucket type
+     * that can search by key faster.
+     */
+    protected Node find(Collection<Node> bucket, K key) {
+        for (Node n : bucket) {
+            if (n.key.equals(key)) {
+                return n;
+            }
+        }
         return null;
     }
 
-    // TODO: Implement the methods of the Map61B Interface below
-    // Your code won't compile until you do so!
+    /* Returns the node for KEY in either table, or null. */
+    private Node getNode(K key) {
+        rehashStep();
+        if (oldBuckets != null) {
+            Node n = lookup(oldBuckets[indexFor(key, oldBuckets.length)], key);
+            if (n != null) {
+                return n;
+            }
+        }
+        return lookup(buckets[indexFor(key, buckets.length)], key);
+    }
 
+    @Override
+    public void clear() {
+        buckets = createTable(buckets.length);
+        oldBuckets = null;
+        rehashIndex = 0;
+        size = 0;
+    }
+
+    @Override
+    public boolean containsKey(K key) {
+        return getNode(key) != null;
+    }
+
+    @Override
+    public V get(K key) {
+        Node n = getNode(key);
+        return n == null ? null : n.value;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void put(K key, V value) {
+        Node n = getNode(key);
+        if (n != null) {
+            n.value = value;
+            return;
+        }
+        bucketFor(key).add(createNode(key, value));
+        size += 1;
+        if (size > maxLoad * buckets.length) {
+            startResize();
+        }
+    }
+
+    /* Starts moving everything to a table twice the size, first finishing
+     * the previous resize if it is somehow still under way. */
+    private void startResize() {
+        while (oldBuckets != null) {
+            rehashStep();
+        }
+        oldBuckets = buckets;
+        rehashIndex = 0;
+        buckets = createTable(buckets.length * 2);
+    }
+
+    /** Returns whether a resize is still moving buckets. */
+    boolean isRehashing() {
+        return oldBuckets != null;
+    }
+
+    @Override
+    public Set<K> keySet() {
+        Set<K> set = new HashSet<>();
+        addKeys(buckets, set);
+        if (oldBuckets != null) {
+            addKeys(oldBuckets, set);
+        }
+        return set;
+    }
+
+    private void addKeys(Collection<Node>[] table, Set<K> set) {
+        for (Collection<Node> bucket : table) {
+            if (bucket != null) {
+                for (Node n : bucket) {
+                    set.add(n.key);
+                }
+            }
+        }
+    }
+
+    @Override
+    public V remove(K key) {
+        rehashStep();
+        Collection<Node> bucket = bucketHolding(key);
+        Node n = lookup(bucket, key);
+        if (n == null) {
+            return null;
+        }
+        bucket.remove(n);
+        size -= 1;
+        return n.value;
+    }
+
+    @Override
+    public V remove(K key, V value) {
+        rehashStep();
+        Collection<Node> bucket = bucketHolding(key);
+        Node n = lookup(bucket, key);
+        if (n == null || !Objects.equals(n.value, value)) {
+            return null;
+        }
+        bucket.remove(n);
+        size -= 1;
+        return n.value;
+    }
+
+    /**
+     * Iterates over a snapshot of the keys, so that the lookups a caller
+     * makes while iterating may keep moving buckets.
+     */
+    @Override
+    public Iterator<K> iterator() {
+        return keySet().iterator();
+    }
 }
@@ -0,0 +1,53 @@
+package hashmap;
+
+import java.util.Collection;
+
+/**
+ * Hash Table with buckets that are small arrays until they collect more than
+ * AdaptiveBucket.TREEIFY_THRESHOLD keys, and trees from then on, if the keys
+ * are Comparable. Unlike MyHashMapTSBuckets, keys need not be Comparable,
+ * and the common short bucket costs no more than an ArrayList; unlike
+ * MyHashMapLLBuckets, a flood of colliding Comparable keys costs O(log n)
+ * per lookup rather than O(n).
+ */
+public class MyHashMapAdaptiveBuckets<K, V> extends MyHashMap<K, V> {
+
+    /**
+     * Constructor that creates a backing array with default
+     * initial size and load factor
+     */
+    public MyHashMapAdaptiveBuckets() {
+        super();
+    }
+
+    /**
+     * Constructor that creates a backing array of initialSize
+     * and default load factor
+     *
+     * @param initialSize initial size of backing array
+     */
+    public MyHashMapAdaptiveBuckets(int initialSize) {
+        super(initialSize);
+    }
+
+    /**
+     * Constructor that creates a backing array of initialSize.
+     * The load factor (# items / # buckets) should always be <= loadFactor
+     *
+     * @param initialSize initial size of backing array
+     * @param maxLoad maximum load factor
+     */
+    public MyHashMapAdaptiveBuckets(int initialSize, double maxLoad) {
+        super(initialSize, maxLoad);
+    }
+
+    @Override
+    protected Collection<Node> createBucket() {
+        return new AdaptiveBucket<Node>(n -> n.key);
+    }
+
+    @Override
+    protected Node find(Collection<Node> bucket, K key) {
+        return ((AdaptiveBucket<Node>) bucket).find(key);
+    }
+}
@@ -0,0 +1,274 @@
+package hashmap;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ *  A hash table-backed Map implementation with open addressing: keys and
+ *  values live in parallel arrays, with no Node objects and no buckets, so
+ *  a lookup touches at most a few adjacent slots.
+ *
+ *  Collisions are resolved by Robin Hood linear probing. Every entry knows
+ *  its probe distance, how far it sits past its home slot. An insert that
+ *  meets an entry closer to home than itself takes that slot and carries
+ *  the displaced entry on, so probe lengths stay short and even, and a
+ *  lookup can stop as soon as it meets an entry closer to home than the
+ *  key it wants would be. remove() shifts the following entries of the run
+ *  back by one instead of leaving tombstones.
+ *
+ *  Assumes null keys will never be inserted, and does not resize down upon remove().
+ */
+public class MyHashMapOpenAddressing<K, V> implements Map61B<K, V> {
+    private static final int DEFAULT_SIZE = 16;
+    private static final double DEFAULT_MAX_LOAD = 0.75;
+
+    /* Slot i is empty if keys[i] is null. hashes[i] caches the spread hash
+     * of keys[i]; its low bits give the key's home slot. */
+    private K[] keys;
+    private V[] values;
+    private int[] hashes;
+    private int size;
+    private final double maxLoad;
+
+    /** Constructors */
+    public MyHashMapOpenAddressing() {
+        this(DEFAULT_SIZE, DEFAULT_MAX_LOAD);
+    }
+
+    public MyHashMapOpenAddressing(int initialSize) {
+        this(initialSize, DEFAULT_MAX_LOAD);
+    }
+
+    /**
+     * MyHashMapOpenAddressing constructor that creates backing arrays of at
+     * least initialSize slots. The load factor (# items / # slots) should
+     * always be <= maxLoad, which must be below 1.
+     *
+     * @param initialSize initial size of backing arrays
+     * @param maxLoad maximum load factor
+     */
+    public MyHashMapOpenAddressing(int initialSize, double maxLoad) {
+        if (maxLoad <= 0 || maxLoad >= 1) {
+            throw new IllegalArgumentException("maxLoad must be in (0, 1): " + maxLoad);
+        }
+        this.maxLoad = maxLoad;
+        int capacity = 1;
+        while (capacity < initialSize) {
+            capacity *= 2;
+        }
+        allocate(capacity);
+    }
+
+    private void allocate(int capacity) {
+        keys = (K[]) new Object[capacity];
+        values = (V[]) new Object[capacity];
+        hashes = new int[capacity];
+        size = 0;
+    }
+
+    private static int hash(Object key) {
+        int h = key.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    /* How far slot I is from the home slot of a key with hash H. */
+    private int distance(int h, int i) {
+        return (i - h) & (keys.length - 1);
+    }
+
+    /** Returns the slot holding KEY, or -1. */
+    private int find(K key) {
+        int h = hash(key);
+        int mask = keys.length - 1;
+        int i = h & mask;
+        for (int d = 0; keys[i] != null && distance(hashes[i], i) >= d; d++) {
+            if (hashes[i] == h && key.equals(keys[i])) {
+                return i;
+            }
+            i = (i + 1) & mask;
+        }
+        return -1;
+    }
+
+    @Override
+    public void clear() {
+        allocate(keys.length);
+    }
+
+    @Override
+    public boolean containsKey(K key) {
+        return find(key) >= 0;
+    }
+
+    @Override
+    public V get(K key) {
+        int i = find(key);
+        return i < 0 ? null : values[i];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /** Returns the number of slots in the backing arrays. */
+    int capacity() {
+        return keys.length;
+    }
+
+    @Override
+    public void put(K key, V value) {
+        int h = hash(key);
+        int mask = keys.length - 1;
+        int i = h & mask;
+        int d = 0;
+        while (keys[i] != null) {
+            if (hashes[i] == h && key.equals(keys[i])) {
+                values[i] = value;
+                return;
+            }
+            if (distance(hashes[i], i) < d) {
+                /* KEY would already be here; it is not in the table. */
+                break;
+            }
+            i = (i + 1) & mask;
+            d += 1;
+        }
+        /* Only a real insert may grow the table, and growing moves every
+         * entry, so the probe then starts over at KEY's new home. */
+        if (size + 1 > maxLoad * keys.length) {
+            resize(keys.length * 2);
+            i = h & (keys.length - 1);
+            d = 0;
+        }
+        place(key, value, h, i, d);
+        size += 1;
+    }
+
+    /* Places an entry known not to be in the table, starting the probe at
+     * slot I, D slots from its home. */
+    private void place(K key, V value, int h, int i, int d) {
+        int mask = keys.length - 1;
+        while (keys[i] != null) {
+            int existing = distance(hashes[i], i);
+            if (existing < d) {
+                /* Rob the richer entry: take its slot and carry it on. */
+                K k = keys[i];
+                V v = values[i];
+                int eh = hashes[i];
+                keys[i] = key;
+                values[i] = value;
+                hashes[i] = h;
+                key = k;
+                value = v;
+                h = eh;
+                d = existing;
+            }
+            i = (i + 1) & mask;
+            d += 1;
+        }
+        keys[i] = key;
+        values[i] = value;
+        hashes[i] = h;
+    }
+
+    private void resize(int capacity) {
+        K[] oldKeys = keys;
+        V[] oldValues = values;
+        int[] oldHashes = hashes;
+        int oldSize = size;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != null) {
+                place(oldKeys[i], oldValues[i], oldHashes[i], oldHashes[i] & (capacity - 1), 0);
+            }
+        }
+        size = oldSize;
+    }
+
+    @Override
+    public Set<K> keySet() {
+        Set<K> set = new HashSet<>();
+        for (K key : this) {
+            set.add(key);
+        }
+        return set;
+    }
+
+    @Override
+    public V remove(K key) {
+        int i = find(key);
+        if (i < 0) {
+            return null;
+        }
+        V old = values[i];
+        deleteSlot(i);
+        return old;
+    }
+
+    @Override
+    public V remove(K key, V value) {
+        int i = find(key);
+        if (i < 0 || !Objects.equals(values[i], value)) {
+            return null;
+        }
+        deleteSlot(i);
+        return value;
+    }
+
+    /* Empties slot I and shifts the rest of its run back one slot, until an
+     * empty slot or an entry already in its home slot. */
+    private void deleteSlot(int i) {
+        int mask = keys.length - 1;
+        int next = (i + 1) & mask;
+        while (keys[next] != null && distance(hashes[next], next) > 0) {
+            keys[i] = keys[next];
+            values[i] = values[next];
+            hashes[i] = hashes[next];
+            i = next;
+            next = (next + 1) & mask;
+        }
+        keys[i] = null;
+        values[i] = null;
+        size -= 1;
+    }
+
+    @Override
+    public Iterator<K> iterator() {
+        return new KeyIterator();
+    }
+
+    /** Iterates over the keys in slot order. */
+    private class KeyIterator implements Iterator<K> {
+        private int slot;
+
+        KeyIterator() {
+            slot = advance(0);
+        }
+
+        private int advance(int i) {
+            while (i < keys.length && keys[i] == null) {
+                i += 1;
+            }
+            return i;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return slot < keys.length;
+        }
+
+        @Override
+        public K next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            K key = keys[slot];
+            slot = advance(slot + 1);
+            return key;
+        }
+    }
+}
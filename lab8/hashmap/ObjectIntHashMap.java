@@ -0,0 +1,282 @@
+package hashmap;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ *  A hash map from K to int that stores its keys in one array and its
+ *  values in an int array, so that put(K, int), getInt and addTo neither box
+ *  the value nor allocate a node. Collisions are resolved by linear probing,
+ *  and remove() shifts the following entries of the run back instead of
+ *  leaving tombstones.
+ *
+ *  The Map61B methods box and unbox the value at the boundary; use the int
+ *  overloads to avoid that. getInt returns 0 for a missing key.
+ *
+ *  Assumes null keys will never be inserted, and does not resize down upon remove().
+ */
+public class ObjectIntHashMap<K> implements Map61B<K, Integer> {
+    private static final int DEFAULT_SIZE = 16;
+    private static final double DEFAULT_MAX_LOAD = 0.75;
+
+    /* keys[i] == null marks slot i as empty. */
+    private K[] keys;
+    private int[] values;
+    private int mask;
+    private int size;
+    /* Resize once size goes past this. */
+    private int threshold;
+    private final double maxLoad;
+
+    /** Constructors */
+    public ObjectIntHashMap() {
+        this(DEFAULT_SIZE, DEFAULT_MAX_LOAD);
+    }
+
+    public ObjectIntHashMap(int initialSize) {
+        this(initialSize, DEFAULT_MAX_LOAD);
+    }
+
+    /**
+     * ObjectIntHashMap constructor that creates a table of at least
+     * initialSize slots. The load factor (# items / # slots) should always
+     * be <= maxLoad, which must be below 1.
+     *
+     * @param initialSize initial size of backing arrays
+     * @param maxLoad maximum load factor
+     */
+    public ObjectIntHashMap(int initialSize, double maxLoad) {
+        if (maxLoad <= 0 || maxLoad >= 1) {
+            throw new IllegalArgumentException("maxLoad must be in (0, 1): " + maxLoad);
+        }
+        this.maxLoad = maxLoad;
+        int capacity = 2;
+        while (capacity < initialSize) {
+            capacity *= 2;
+        }
+        allocate(capacity);
+    }
+
+    private void allocate(int capacity) {
+        keys = (K[]) new Object[capacity];
+        values = new int[capacity];
+        mask = capacity - 1;
+        threshold = (int) Math.min(capacity - 1, capacity * maxLoad);
+    }
+
+    /* Scrambles the hash code of KEY, whose low bits may be poorly spread. */
+    private static int mix(Object key) {
+        int h = key.hashCode() * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /* Returns the slot holding KEY, or -(the slot it would go in) - 1. */
+    private int slot(Object key) {
+        int i = mix(key) & mask;
+        K k;
+        while ((k = keys[i]) != null) {
+            if (k == key || k.equals(key)) {
+                return i;
+            }
+            i = (i + 1) & mask;
+        }
+        return -i - 1;
+    }
+
+    private void insert(int i, K key, int value) {
+        keys[i] = key;
+        values[i] = value;
+        size += 1;
+        if (size > threshold) {
+            resize(2 * (mask + 1));
+        }
+    }
+
+    private void resize(int capacity) {
+        K[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(capacity);
+        for (int j = 0; j < oldKeys.length; j++) {
+            K key = oldKeys[j];
+            if (key != null) {
+                int i = mix(key) & mask;
+                while (keys[i] != null) {
+                    i = (i + 1) & mask;
+                }
+                keys[i] = key;
+                values[i] = oldValues[j];
+            }
+        }
+    }
+
+    /* Empties slot HOLE, then walks the rest of its run and moves back into
+     * the hole every entry that may legally sit there, that is, whose home
+     * slot is not between the hole and the entry. */
+    private void deleteSlot(int hole) {
+        int i = hole;
+        while (true) {
+            i = (i + 1) & mask;
+            K key = keys[i];
+            if (key == null) {
+                break;
+            }
+            int home = mix(key) & mask;
+            if (((i - home) & mask) >= ((i - hole) & mask)) {
+                keys[hole] = key;
+                values[hole] = values[i];
+                hole = i;
+            }
+        }
+        keys[hole] = null;
+        size -= 1;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(keys, null);
+        size = 0;
+    }
+
+    @Override
+    public boolean containsKey(K key) {
+        return slot(key) >= 0;
+    }
+
+    /** Returns the value KEY maps to, or 0 if there is none. */
+    public int getInt(K key) {
+        return getOrDefault(key, 0);
+    }
+
+    /** Returns the value KEY maps to, or DEFAULTVALUE if there is none. */
+    public int getOrDefault(K key, int defaultValue) {
+        int i = slot(key);
+        return i < 0 ? defaultValue : values[i];
+    }
+
+    @Override
+    public Integer get(K key) {
+        int i = slot(key);
+        return i < 0 ? null : values[i];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    public void put(K key, int value) {
+        int i = slot(key);
+        if (i >= 0) {
+            values[i] = value;
+        } else {
+            insert(-i - 1, key, value);
+        }
+    }
+
+    @Override
+    public void put(K key, Integer value) {
+        put(key, value.intValue());
+    }
+
+    /**
+     * Adds INCREMENT to the value KEY maps to, treating a missing key as
+     * mapped to 0, and returns the new value.
+     */
+    public int addTo(K key, int increment) {
+        int i = slot(key);
+        if (i >= 0) {
+            values[i] += increment;
+            return values[i];
+        }
+        insert(-i - 1, key, increment);
+        return increment;
+    }
+
+    @Override
+    public Set<K> keySet() {
+        Set<K> set = new HashSet<>();
+        for (K key : this) {
+            set.add(key);
+        }
+        return set;
+    }
+
+    /** Removes KEY and returns the value it mapped to, or 0 if there was none. */
+    public int removeInt(K key) {
+        int i = slot(key);
+        if (i < 0) {
+            return 0;
+        }
+        int old = values[i];
+        deleteSlot(i);
+        return old;
+    }
+
+    @Override
+    public Integer remove(K key) {
+        int i = slot(key);
+        if (i < 0) {
+            return null;
+        }
+        int old = values[i];
+        deleteSlot(i);
+        return old;
+    }
+
+    /** Removes KEY only if it maps to VALUE, and returns whether it did. */
+    public boolean remove(K key, int value) {
+        int i = slot(key);
+        if (i < 0 || values[i] != value) {
+            return false;
+        }
+        deleteSlot(i);
+        return true;
+    }
+
+    @Override
+    public Integer remove(K key, Integer value) {
+        if (value == null) {
+            return null;
+        }
+        return remove(key, value.intValue()) ? value : null;
+    }
+
+    @Override
+    public Iterator<K> iterator() {
+        return new KeyIterator();
+    }
+
+    /** Iterates over the keys in slot order. */
+    private class KeyIterator implements Iterator<K> {
+        private int slot;
+
+        KeyIterator() {
+            slot = advance(0);
+        }
+
+        private int advance(int i) {
+            while (i < keys.length && keys[i] == null) {
+                i += 1;
+            }
+            return i;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return slot < keys.length;
+        }
+
+        @Override
+        public K next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            K key = keys[slot];
+            slot = advance(slot + 1);
+            return key;
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package hashmap;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.math.BigDecimal;
+import java.util.HashSet;
+import java.util.Set;
+
+public class TestAdaptiveBucket {
+
+    /* A Comparable key whose hash codes all collide, as in a hash flood. */
+    private static class BadKey implements Comparable<BadKey> {
+        final int id;
+
+        BadKey(int id) {
+            this.id = id;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof BadKey && ((BadKey) o).id == id;
+        }
+
+        @Override
+        public int hashCode() {
+            return 61;
+        }
+
+        @Override
+        public int compareTo(BadKey o) {
+            return Integer.compare(id, o.id);
+        }
+    }
+
+    @Test
+    public void treeifyAndUntreeifyTest() {
+        AdaptiveBucket<Integer> b = new AdaptiveBucket<>(x -> x);
+        Integer[] items = new Integer[20];
+        for (int i = 0; i < items.length; i++) {
+            items[i] = 1000 + i;
+        }
+        for (int i = 0; i < AdaptiveBucket.TREEIFY_THRESHOLD; i++) {
+            b.add(items[i]);
+        }
+        assertFalse(b.isTree());
+        b.add(items[AdaptiveBucket.TREEIFY_THRESHOLD]);
+        assertTrue(b.isTree());
+        for (int i = AdaptiveBucket.TREEIFY_THRESHOLD + 1; i < items.length; i++) {
+            b.add(items[i]);
+        }
+        assertEquals(items.length, b.size());
+        for (Integer item : items) {
+            assertSame(item, b.find(item));
+        }
+        assertNull(b.find(61));
+        assertNull(b.find("not an Integer"));
+
+        Set<Integer> seen = new HashSet<>(b);
+        assertEquals(items.length, seen.size());
+
+        int i = 0;
+        while (b.size() >= AdaptiveBucket.UNTREEIFY_THRESHOLD) {
+            assertTrue(b.isTree());
+            assertTrue(b.remove(items[i]));
+            i += 1;
+        }
+        assertFalse(b.isTree());
+        assertFalse(b.remove(items[0]));
+        for (; i < items.length; i++) {
+            assertSame(items[i], b.find(items[i]));
+        }
+    }
+
+    @Test
+    public void mixedKeysStayArrayTest() {
+        AdaptiveBucket<Object> b = new AdaptiveBucket<>(x -> x);
+        for (int i = 0; i < 20; i++) {
+            b.add(i);
+        }
+        assertTrue(b.isTree());
+        b.add("twenty");
+        assertFalse(b.isTree());
+        assertEquals(21, b.size());
+        assertEquals("twenty", b.find("twenty"));
+        assertEquals(7, b.find(7));
+        b.add(new Object());
+        assertFalse(b.isTree());
+    }
+
+    @Test
+    public void collisionFloodTest() {
+        MyHashMapAdaptiveBuckets<BadKey, Integer> m = new MyHashMapAdaptiveBuckets<>();
+        int n = 20000;
+        for (int i = 0; i < n; i++) {
+            m.put(new BadKey(i), i);
+        }
+        assertEquals(n, m.size());
+        for (int i = 0; i < n; i++) {
+            assertEquals(i, (int) m.get(new BadKey(i)));
+        }
+        for (int i = 0; i < n; i += 2) {
+            assertEquals(i, (int) m.remove(new BadKey(i)));
+        }
+        assertEquals(n / 2, m.size());
+        assertFalse(m.containsKey(new BadKey(0)));
+        assertTrue(m.containsKey(new BadKey(1)));
+    }
+
+    /* 1.0 and 1.00 compare equal but are not equals, so they are two keys. */
+    @Test
+    public void compareToInconsistentWithEqualsTest() {
+        MyHashMapAdaptiveBuckets<BigDecimal, String> m = new MyHashMapAdaptiveBuckets<>(1, 1000);
+        for (int i = 2; i < 12; i++) {
+            m.put(BigDecimal.valueOf(i), "v" + i);
+        }
+        m.put(new BigDecimal("1.0"), "one");
+        m.put(new BigDecimal("1.00"), "one hundredths");
+        assertEquals(12, m.size());
+        assertEquals("one", m.get(new BigDecimal("1.0")));
+        assertEquals("one hundredths", m.get(new BigDecimal("1.00")));
+        assertNull(m.get(new BigDecimal("1.000")));
+        assertEquals(12, m.keySet().size());
+
+        assertEquals("one", m.remove(new BigDecimal("1.0")));
+        assertNull(m.get(new BigDecimal("1.0")));
+        assertEquals("one hundredths", m.get(new BigDecimal("1.00")));
+        assertEquals(11, m.size());
+    }
+}
@@ -0,0 +1,148 @@
+package hashmap;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class TestConcurrentMyHashMap {
+    private static final int THREADS = 4;
+
+    @Test
+    public void sanityTest() {
+        ConcurrentMyHashMap<String, Integer> b = new ConcurrentMyHashMap<>();
+        for (int i = 0; i < 455; i++) {
+            b.put("hi" + i, i);
+            assertEquals(i, (int) b.get("hi" + i));
+            assertTrue(b.containsKey("hi" + i));
+        }
+        assertEquals(455, b.size());
+        b.put("hi0", 61);
+        assertEquals(455, b.size());
+        assertEquals(61, (int) b.get("hi0"));
+
+        assertNull(b.remove("hi0", 0));
+        assertEquals(61, (int) b.remove("hi0", 61));
+        assertEquals(1, (int) b.remove("hi1"));
+        assertNull(b.remove("hi1"));
+        assertEquals(453, b.size());
+        assertEquals(453, b.keySet().size());
+
+        b.clear();
+        assertEquals(0, b.size());
+        for (int i = 0; i < 455; i++) {
+            assertFalse(b.containsKey("hi" + i));
+        }
+        assertFalse(b.iterator().hasNext());
+    }
+
+    /** The createBucket() factory still picks the bucket type. */
+    @Test
+    public void bucketFactoryTest() {
+        ConcurrentMyHashMap<Integer, Integer> b = new ConcurrentMyHashMap<>() {
+            @Override
+            protected Collection<Node> createBucket() {
+                return new LinkedList<>();
+            }
+        };
+        for (int i = 0; i < 1000; i++) {
+            b.put(i, -i);
+        }
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(-i, (int) b.get(i));
+        }
+    }
+
+    /* Keys 0..15 land in 16 different buckets, so no insert collides, and
+     * the map must still grow once it passes 0.75 * 16 keys. */
+    @Test
+    public void resizeWithoutCollisionsTest() {
+        ConcurrentMyHashMap<Integer, Integer> b = new ConcurrentMyHashMap<>(16, 0.75);
+        for (int i = 0; i < 12; i++) {
+            b.put(i, i);
+        }
+        assertEquals(16, b.capacity());
+        b.put(12, 12);
+        assertEquals(32, b.capacity());
+        for (int i = 0; i < 13; i++) {
+            assertEquals(i, (int) b.get(i));
+        }
+    }
+
+    /**
+     * Writers insert and remove disjoint ranges of keys from a map small
+     * enough to resize many times while readers check that every key that
+     * has been put and not removed stays visible throughout.
+     */
+    @Test(timeout = 60000)
+    public void concurrentResizeTest() throws InterruptedException {
+        int perThread = 20000;
+        ConcurrentMyHashMap<Integer, Integer> b = new ConcurrentMyHashMap<>(1);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        AtomicBoolean writing = new AtomicBoolean(true);
+
+        /* Keys below 0 are put before the writers start and never removed. */
+        for (int i = 1; i <= 1000; i++) {
+            b.put(-i, -i);
+        }
+
+        Thread[] writers = new Thread[THREADS];
+        for (int t = 0; t < THREADS; t++) {
+            int base = t * perThread;
+            writers[t] = new Thread(() -> {
+                try {
+                    for (int i = base; i < base + perThread; i++) {
+                        b.put(i, i);
+                    }
+                    for (int i = base; i < base + perThread; i += 2) {
+                        assertEquals(i, (int) b.remove(i));
+                    }
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                }
+            });
+        }
+        Thread reader = new Thread(() -> {
+            try {
+                while (writing.get()) {
+                    for (int i = 1; i <= 1000; i++) {
+                        assertEquals(-i, (int) b.get(-i));
+                    }
+                    Thread.yield();
+                }
+            } catch (Throwable e) {
+                failure.compareAndSet(null, e);
+            }
+        });
+
+        reader.start();
+        for (Thread w : writers) {
+            w.start();
+        }
+        for (Thread w : writers) {
+            w.join();
+        }
+        writing.set(false);
+        reader.join();
+        if (failure.get() != null) {
+            throw new AssertionError(failure.get());
+        }
+
+        assertEquals(1000 + THREADS * perThread / 2, b.size());
+        Set<Integer> expected = new HashSet<>();
+        for (int i = 1; i <= 1000; i++) {
+            expected.add(-i);
+        }
+        for (int i = 1; i < THREADS * perThread; i += 2) {
+            expected.add(i);
+            assertEquals(i, (int) b.get(i));
+            assertFalse(b.containsKey(i - 1));
+        }
+        assertEquals(expected, b.keySet());
+    }
+}
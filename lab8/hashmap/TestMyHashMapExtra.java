@@ -3,6 +3,9 @@ package hashmap;
 import static org.junit.Assert.*;
 import org.junit.Test;
 
+import java.util.HashMap;
+import java.util.Random;
+
 /** Tests of optional parts of lab 8. */
 public class TestMyHashMapExtra {
 
@@ -49,4 +52,43 @@ public class TestMyHashMapExtra {
         assertTrue(q.containsKey("b"));
         assertTrue(q.containsKey("f"));
     }
+
+    /**
+     * Incremental resize: while entries are still moving from the old table
+     * to the new one, every key must be found in exactly one of them.
+     */
+    @Test
+    public void testIncrementalResize() {
+        testIncrementalResize(new MyHashMap<>(1));
+        testIncrementalResize(new MyHashMapALBuckets<>(1));
+        testIncrementalResize(new MyHashMapTSBuckets<>(1));
+        testIncrementalResize(new MyHashMapHSBuckets<>(1));
+        testIncrementalResize(new MyHashMapPQBuckets<>(1));
+        testIncrementalResize(new MyHashMapAdaptiveBuckets<>(1));
+    }
+
+    private static void testIncrementalResize(MyHashMap<Integer, Integer> q) {
+        Random random = new Random(61);
+        HashMap<Integer, Integer> expected = new HashMap<>();
+        boolean sawRehash = false;
+        for (int i = 0; i < 20000; i++) {
+            int key = random.nextInt(5000);
+            switch (random.nextInt(4)) {
+                case 0:
+                case 1:
+                    q.put(key, i);
+                    expected.put(key, i);
+                    break;
+                case 2:
+                    assertEquals(expected.remove(key), q.remove(key));
+                    break;
+                default:
+                    assertEquals(expected.get(key), q.get(key));
+            }
+            sawRehash |= q.isRehashing();
+            assertEquals(expected.size(), q.size());
+        }
+        assertTrue(sawRehash);
+        assertEquals(expected.keySet(), q.keySet());
+    }
 }
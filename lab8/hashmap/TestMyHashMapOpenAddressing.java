@@ -0,0 +1,162 @@
+package hashmap;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+public class TestMyHashMapOpenAddressing {
+
+    /* A key whose hash code is chosen by the test, to force collisions. */
+    private static class Key {
+        final int id;
+        final int hash;
+
+        Key(int id, int hash) {
+            this.id = id;
+            this.hash = hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key && ((Key) o).id == id;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    @Test
+    public void sanityTest() {
+        MyHashMapOpenAddressing<String, Integer> b = new MyHashMapOpenAddressing<>();
+        assertEquals(0, b.size());
+        assertFalse(b.containsKey("hi"));
+        assertNull(b.get("hi"));
+        b.put("hi", 1);
+        b.put("hi", 2);
+        assertEquals(1, b.size());
+        assertEquals(2, (int) b.get("hi"));
+        b.put("bye", null);
+        assertTrue(b.containsKey("bye"));
+        assertNull(b.get("bye"));
+        assertEquals(2, b.size());
+    }
+
+    /* Overwriting a key at the load limit must not grow the table. */
+    @Test
+    public void updateDoesNotResizeTest() {
+        MyHashMapOpenAddressing<String, Integer> b = new MyHashMapOpenAddressing<>(4, 0.75);
+        b.put("a", 1);
+        b.put("b", 2);
+        b.put("c", 3);
+        assertEquals(4, b.capacity());
+        b.put("a", 4);
+        b.put("c", 5);
+        assertEquals(4, b.capacity());
+        assertEquals(4, (int) b.get("a"));
+        b.put("d", 6);
+        assertEquals(8, b.capacity());
+        assertEquals(4, b.size());
+        for (String k : new String[] {"a", "b", "c", "d"}) {
+            assertTrue(b.containsKey(k));
+        }
+    }
+
+    @Test
+    public void clearTest() {
+        MyHashMapOpenAddressing<String, Integer> b = new MyHashMapOpenAddressing<>();
+        for (int i = 0; i < 455; i++) {
+            b.put("hi" + i, 1);
+            assertTrue(null != b.get("hi" + i) && b.containsKey("hi" + i));
+        }
+        b.clear();
+        assertEquals(0, b.size());
+        for (int i = 0; i < 455; i++) {
+            assertTrue(null == b.get("hi" + i) && !b.containsKey("hi" + i));
+        }
+    }
+
+    @Test
+    public void keySetAndIteratorTest() {
+        MyHashMapOpenAddressing<String, Integer> b = new MyHashMapOpenAddressing<>(1, 0.5);
+        Set<String> values = new HashSet<>();
+        for (int i = 0; i < 100; i++) {
+            b.put("hi" + i, 1);
+            values.add("hi" + i);
+        }
+        assertEquals(100, b.size());
+        assertEquals(values, b.keySet());
+        Set<String> seen = new HashSet<>();
+        for (String key : b) {
+            assertTrue(seen.add(key));
+        }
+        assertEquals(values, seen);
+    }
+
+    @Test
+    public void removeTest() {
+        MyHashMapOpenAddressing<String, Integer> b = new MyHashMapOpenAddressing<>();
+        b.put("a", 1);
+        b.put("b", 2);
+        assertNull(b.remove("c"));
+        assertNull(b.remove("a", 2));
+        assertEquals(2, b.size());
+        assertEquals(1, (int) b.remove("a", 1));
+        assertEquals(2, (int) b.remove("b"));
+        assertEquals(0, b.size());
+        assertFalse(b.containsKey("a"));
+        assertFalse(b.containsKey("b"));
+    }
+
+    /* Keys in a few hash classes crowd into long runs that wrap around the
+     * end of the table; removing from the middle of a run must shift the
+     * rest back without losing any of them. */
+    @Test
+    public void collidingKeysTest() {
+        MyHashMapOpenAddressing<Key, Integer> b = new MyHashMapOpenAddressing<>(64, 0.9);
+        HashMap<Key, Integer> expected = new HashMap<>();
+        for (int i = 0; i < 50; i++) {
+            Key k = new Key(i, 60 + i % 3);
+            b.put(k, i);
+            expected.put(k, i);
+        }
+        for (int i = 0; i < 50; i += 2) {
+            Key k = new Key(i, 60 + i % 3);
+            assertEquals(expected.remove(k), b.remove(k));
+        }
+        assertEquals(expected.size(), b.size());
+        for (int i = 0; i < 50; i++) {
+            Key k = new Key(i, 60 + i % 3);
+            assertEquals(expected.get(k), b.get(k));
+            assertEquals(expected.containsKey(k), b.containsKey(k));
+        }
+    }
+
+    @Test
+    public void randomizedTest() {
+        Random random = new Random(61);
+        MyHashMapOpenAddressing<Integer, Integer> b = new MyHashMapOpenAddressing<>();
+        HashMap<Integer, Integer> expected = new HashMap<>();
+        for (int i = 0; i < 100000; i++) {
+            int key = random.nextInt(2000) * 1024;
+            switch (random.nextInt(3)) {
+                case 0:
+                    b.put(key, i);
+                    expected.put(key, i);
+                    break;
+                case 1:
+                    assertEquals(expected.remove(key), b.remove(key));
+                    break;
+                default:
+                    assertEquals(expected.get(key), b.get(key));
+            }
+            assertEquals(expected.size(), b.size());
+        }
+        assertEquals(expected.keySet(), b.keySet());
+    }
+}
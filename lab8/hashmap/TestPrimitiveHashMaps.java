@@ -0,0 +1,135 @@
+package hashmap;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.util.HashMap;
+import java.util.Random;
+
+/** Tests IntIntHashMap, LongObjectHashMap and ObjectIntHashMap. */
+public class TestPrimitiveHashMaps {
+
+    @Test
+    public void intIntSanityTest() {
+        IntIntHashMap b = new IntIntHashMap();
+        assertFalse(b.containsKey(0));
+        assertEquals(0, b.get(7));
+        assertEquals(-1, b.getOrDefault(7, -1));
+        assertNull(b.get(Integer.valueOf(7)));
+
+        b.put(0, 10);
+        b.put(7, 70);
+        assertEquals(2, b.size());
+        assertTrue(b.containsKey(0));
+        assertEquals(10, b.get(0));
+        assertEquals(Integer.valueOf(70), b.get(Integer.valueOf(7)));
+
+        assertEquals(11, b.addTo(0, 1));
+        assertEquals(5, b.addTo(-3, 5));
+        assertEquals(3, b.size());
+        assertEquals(3, b.keySet().size());
+        assertTrue(b.keySet().contains(0));
+
+        assertFalse(b.remove(0, 10));
+        assertTrue(b.remove(0, 11));
+        assertFalse(b.containsKey(0));
+        assertEquals(Integer.valueOf(70), b.remove(Integer.valueOf(7)));
+        assertEquals(0, b.remove(7));
+        assertEquals(1, b.size());
+
+        b.clear();
+        assertEquals(0, b.size());
+        assertFalse(b.containsKey(-3));
+        assertFalse(b.iterator().hasNext());
+    }
+
+    @Test
+    public void intIntRandomizedTest() {
+        Random random = new Random(61);
+        IntIntHashMap b = new IntIntHashMap();
+        HashMap<Integer, Integer> expected = new HashMap<>();
+        for (int i = 0; i < 100000; i++) {
+            /* Multiples of 1024 collide in the low bits unless mixed. */
+            int key = (random.nextInt(2000) - 1000) * 1024;
+            switch (random.nextInt(4)) {
+                case 0:
+                    b.put(key, i);
+                    expected.put(key, i);
+                    break;
+                case 1:
+                    assertEquals(expected.merge(key, 1, Integer::sum).intValue(), b.addTo(key, 1));
+                    break;
+                case 2:
+                    assertEquals(expected.remove(key), b.remove(Integer.valueOf(key)));
+                    break;
+                default:
+                    assertEquals(expected.get(key), b.get(Integer.valueOf(key)));
+            }
+            assertEquals(expected.size(), b.size());
+        }
+        assertEquals(expected.keySet(), b.keySet());
+    }
+
+    @Test
+    public void longObjectTest() {
+        Random random = new Random(61);
+        LongObjectHashMap<String> b = new LongObjectHashMap<>(1);
+        HashMap<Long, String> expected = new HashMap<>();
+        for (int i = 0; i < 100000; i++) {
+            long key = (random.nextInt(2000) - 1000) * (1L << 32);
+            switch (random.nextInt(3)) {
+                case 0:
+                    b.put(key, "v" + i);
+                    expected.put(key, "v" + i);
+                    break;
+                case 1:
+                    assertEquals(expected.remove(key), b.remove(key));
+                    break;
+                default:
+                    assertEquals(expected.get(key), b.get(key));
+                    assertEquals(expected.containsKey(key), b.containsKey(key));
+            }
+            assertEquals(expected.size(), b.size());
+        }
+        assertEquals(expected.keySet(), b.keySet());
+
+        b.put(0L, "zero");
+        assertNull(b.remove(Long.valueOf(0), "one"));
+        assertEquals("zero", b.remove(Long.valueOf(0), "zero"));
+        assertFalse(b.containsKey(0L));
+    }
+
+    @Test
+    public void objectIntTest() {
+        Random random = new Random(61);
+        ObjectIntHashMap<String> b = new ObjectIntHashMap<>();
+        HashMap<String, Integer> expected = new HashMap<>();
+        for (int i = 0; i < 100000; i++) {
+            String key = "id" + random.nextInt(2000);
+            switch (random.nextInt(4)) {
+                case 0:
+                    b.put(key, i);
+                    expected.put(key, i);
+                    break;
+                case 1:
+                    assertEquals(expected.merge(key, 1, Integer::sum).intValue(), b.addTo(key, 1));
+                    break;
+                case 2:
+                    Integer old = expected.remove(key);
+                    assertEquals(old == null ? 0 : old, b.removeInt(key));
+                    break;
+                default:
+                    assertEquals(expected.get(key), b.get(key));
+                    assertEquals(expected.getOrDefault(key, 0).intValue(), b.getInt(key));
+            }
+            assertEquals(expected.size(), b.size());
+        }
+        assertEquals(expected.keySet(), b.keySet());
+
+        b.clear();
+        b.put("a", 1);
+        assertNull(b.remove("a", Integer.valueOf(2)));
+        assertTrue(b.remove("a", 1));
+        assertEquals(0, b.size());
+    }
+}
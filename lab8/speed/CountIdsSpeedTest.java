@@ -0,0 +1,144 @@
+package speed;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Random;
+import java.util.Scanner;
+import edu.princeton.cs.algs4.Stopwatch;
+
+import hashmap.IntIntHashMap;
+import hashmap.LongObjectHashMap;
+import hashmap.Map61B;
+import hashmap.MyHashMapOpenAddressing;
+
+/** Performs a timing test of counting int ids in boxed and unboxed maps. */
+public class CountIdsSpeedTest {
+    /**
+     * Requests user input and counts the same random ids with each map.
+     * ARGS is unused.
+     */
+    public static void main(String[] args) throws IOException {
+        Scanner input = new Scanner(System.in);
+
+        System.out.println("\n This program counts N random int ids "
+                + "drawn from [0, R)\n"
+                + " with different types of maps "
+                + "as <id, count> pairs.\n");
+        System.out.print("What would you like R to be?: ");
+        int R = waitForPositiveInt(input);
+
+        String repeat = "y";
+        do {
+            System.out.print("\nEnter # ids to count in each map: ");
+            int N = waitForPositiveInt(input);
+            int[] ids = randomIds(N, R);
+
+            timeCount("Java's Built-in HashMap", () -> countHashMap(ids));
+            timeCount("hashmap.MyHashMapOpenAddressing",
+                () -> countMap61B(new MyHashMapOpenAddressing<>(), ids));
+            timeCount("hashmap.IntIntHashMap, boxed",
+                () -> countMap61B(new IntIntHashMap(), ids));
+            timeCount("hashmap.IntIntHashMap", () -> countIntInt(ids));
+            timeCount("hashmap.LongObjectHashMap", () -> countLongObject(ids));
+
+            System.out.print("\nWould you like to try more timed-tests? (y/n)");
+            repeat = input.nextLine();
+        } while (!repeat.equalsIgnoreCase("n") && !repeat.equalsIgnoreCase("no"));
+        input.close();
+    }
+
+    /** Returns N ids drawn uniformly from [0, R), the same ones on every run. */
+    public static int[] randomIds(int N, int R) {
+        Random random = new Random(61);
+        int[] ids = new int[N];
+        for (int i = 0; i < N; i++) {
+            ids[i] = random.nextInt(R);
+        }
+        return ids;
+    }
+
+    /** Counts IDS through the boxed Map61B interface and returns the number of distinct ids. */
+    public static int countMap61B(Map61B<Integer, Integer> map, int[] ids) {
+        for (int id : ids) {
+            Integer count = map.get(id);
+            map.put(id, count == null ? 1 : count + 1);
+        }
+        return map.size();
+    }
+
+    /** Counts IDS in a HashMap and returns the number of distinct ids. */
+    public static int countHashMap(int[] ids) {
+        HashMap<Integer, Integer> map = new HashMap<>();
+        for (int id : ids) {
+            map.merge(id, 1, Integer::sum);
+        }
+        return map.size();
+    }
+
+    /** Counts IDS without boxing and returns the number of distinct ids. */
+    public static int countIntInt(int[] ids) {
+        IntIntHashMap map = new IntIntHashMap();
+        for (int id : ids) {
+            map.addTo(id, 1);
+        }
+        return map.size();
+    }
+
+    /** Counts IDS in mutable one-element counters keyed by unboxed longs. */
+    public static int countLongObject(int[] ids) {
+        LongObjectHashMap<int[]> map = new LongObjectHashMap<>();
+        for (int id : ids) {
+            int[] count = map.get((long) id);
+            if (count == null) {
+                map.put((long) id, new int[] {1});
+            } else {
+                count[0] += 1;
+            }
+        }
+        return map.size();
+    }
+
+    /**
+     * Waits for the user on other side of Scanner
+     * to enter a positive int,
+     * and outputs that int
+     */
+    public static int waitForPositiveInt(Scanner input) {
+        int ret = 0;
+        do {
+            while (!input.hasNextInt()) {
+                errorBadIntegerInput();
+                input.next();
+            }
+            ret = input.nextInt();
+            input.nextLine(); //consume \n not taken by nextInt()
+        } while (ret <= 0);
+        return ret;
+    }
+    /* ------------------------------- Private methods ------------------------------- */
+    /** A counting run that returns the number of distinct ids it saw. */
+    private interface Count {
+        int run();
+    }
+
+    /**
+     * Times COUNT and prints the result under NAME, or
+     * prints a nice message about the error
+     */
+    private static void timeCount(String name, Count count) {
+        try {
+            Stopwatch sw = new Stopwatch();
+            int distinct = count.run();
+            System.out.printf(name + ": %.2f sec (%d distinct ids)\n", sw.elapsedTime(), distinct);
+        } catch (RuntimeException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Prints a nice message for the user on bad input
+     */
+    private static void errorBadIntegerInput() {
+        System.out.print("Please enter a positive integer: ");
+    }
+}
@@ -0,0 +1,76 @@
+package bench;
+
+import deque.ConcurrentArrayDeque;
+import deque.ConcurrentLinkedDeque;
+import deque.Deque;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Contention benchmarks for the thread-safe deques: every thread hammers one
+ * shared deque with add/remove pairs, so the size stays near its starting
+ * point. Pass "-t N" to JMH to try other thread counts.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class ConcurrentDequeBenchmark {
+    private static final int PREFILL = 1024;
+    private static final Integer ITEM = 61;
+
+    @Param({"ConcurrentLinkedDeque", "ConcurrentArrayDeque", "SynchronizedDeque"})
+    public String impl;
+
+    private Deque<Integer> deque;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        switch (impl) {
+            case "ConcurrentLinkedDeque":
+                deque = new ConcurrentLinkedDeque<>();
+                break;
+            case "ConcurrentArrayDeque":
+                deque = new ConcurrentArrayDeque<>(1 << 16);
+                break;
+            case "SynchronizedDeque":
+                deque = new SynchronizedDeque<>();
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown deque: " + impl);
+        }
+        for (int i = 0; i < PREFILL; i++) {
+            deque.addLast(ITEM);
+        }
+    }
+
+    /** Work-queue pattern: add at the back, take from the front. */
+    @Benchmark
+    public Integer queuePairs() {
+        deque.addLast(ITEM);
+        return deque.removeFirst();
+    }
+
+    /** Stack pattern: every thread fights over the same end. */
+    @Benchmark
+    public Integer stackPairs() {
+        deque.addLast(ITEM);
+        return deque.removeLast();
+    }
+}
@@ -0,0 +1,228 @@
+package bench;
+
+import deque.ArrayDeque;
+import deque.Deque;
+import deque.LinkedListDeque;
+import deque.UnrolledLinkedListDeque;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH throughput benchmarks for the deques in the deque package, with
+ * java.util.ArrayDeque as a baseline. Run them through BenchmarkRunner to get
+ * the results as JSON.
+ *
+ * Apart from iterate, every benchmark method performs OPS element
+ * operations, so the reported score is in element operations per microsecond.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DequeBenchmark {
+    /** Number of element operations done by each benchmark invocation. */
+    private static final int OPS = 1024;
+
+    @Param({"ArrayDeque", "LinkedListDeque", "UnrolledLinkedListDeque", "java.util.ArrayDeque"})
+    public String impl;
+
+    /** Number of items in the deque before a steady-state benchmark starts. */
+    @Param({"1024", "65536"})
+    public int size;
+
+    private Deque<Integer> deque;
+    private Integer[] values;
+    private int[] indices;
+    private int[] mixedOps;
+
+    /** Returns an empty deque of the implementation named by NAME. */
+    static Deque<Integer> create(String name) {
+        switch (name) {
+            case "ArrayDeque":
+                return new ArrayDeque<>();
+            case "LinkedListDeque":
+                return new LinkedListDeque<>();
+            case "UnrolledLinkedListDeque":
+                return new UnrolledLinkedListDeque<>();
+            case "java.util.ArrayDeque":
+                return new JdkDeque<>();
+            default:
+                throw new IllegalArgumentException("Unknown deque: " + name);
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUpValues() {
+        Random r = new Random(61);
+        /* Box the values up front so the benchmarks don't measure Integer allocation. */
+        values = new Integer[OPS];
+        for (int i = 0; i < OPS; i++) {
+            values[i] = r.nextInt();
+        }
+        indices = new int[OPS];
+        for (int i = 0; i < OPS; i++) {
+            indices[i] = r.nextInt(size);
+        }
+        /* The same number of each op, 0 to 3 included, so every invocation of
+         * mixed() adds exactly as many items as it removes. */
+        mixedOps = new int[OPS];
+        for (int i = 0; i < OPS; i++) {
+            mixedOps[i] = i % 6;
+        }
+        for (int i = OPS - 1; i > 0; i--) {
+            int j = r.nextInt(i + 1);
+            int op = mixedOps[i];
+            mixedOps[i] = mixedOps[j];
+            mixedOps[j] = op;
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void setUpDeque() {
+        deque = create(impl);
+        for (int i = 0; i < size; i++) {
+            deque.addLast(values[i % OPS]);
+        }
+    }
+
+    /** Queue-like steady state: the size of the deque never changes. */
+    @Benchmark
+    @OperationsPerInvocation(OPS)
+    public void steadyAddLastRemoveFirst(Blackhole bh) {
+        for (int i = 0; i < OPS; i++) {
+            deque.addLast(values[i]);
+            bh.consume(deque.removeFirst());
+        }
+    }
+
+    /** Stack-like steady state at the front of the deque. */
+    @Benchmark
+    @OperationsPerInvocation(OPS)
+    public void steadyAddFirstRemoveFirst(Blackhole bh) {
+        for (int i = 0; i < OPS; i++) {
+            deque.addFirst(values[i]);
+            bh.consume(deque.removeFirst());
+        }
+    }
+
+    /** Stack-like steady state at the back of the deque. */
+    @Benchmark
+    @OperationsPerInvocation(OPS)
+    public void steadyAddLastRemoveLast(Blackhole bh) {
+        for (int i = 0; i < OPS; i++) {
+            deque.addLast(values[i]);
+            bh.consume(deque.removeLast());
+        }
+    }
+
+    /** Builds a fresh deque from empty, paying for every resize on the way up. */
+    @Benchmark
+    @OperationsPerInvocation(OPS)
+    public Deque<Integer> growAddLast() {
+        Deque<Integer> d = create(impl);
+        for (int i = 0; i < OPS; i++) {
+            d.addLast(values[i]);
+        }
+        return d;
+    }
+
+    /** Same as growAddLast, but at the front. */
+    @Benchmark
+    @OperationsPerInvocation(OPS)
+    public Deque<Integer> growAddFirst() {
+        Deque<Integer> d = create(impl);
+        for (int i = 0; i < OPS; i++) {
+            d.addFirst(values[i]);
+        }
+        return d;
+    }
+
+    /**
+     * Fills a fresh deque and then empties it from both ends, paying for
+     * every resize on the way up and every contraction on the way down.
+     */
+    @Benchmark
+    @OperationsPerInvocation(2 * OPS)
+    public void growThenShrink(Blackhole bh) {
+        Deque<Integer> d = create(impl);
+        for (int i = 0; i < OPS; i++) {
+            d.addLast(values[i]);
+        }
+        for (int i = 0; i < OPS / 2; i++) {
+            bh.consume(d.removeFirst());
+            bh.consume(d.removeLast());
+        }
+    }
+
+    /** Random-access reads at uniformly random indices. */
+    @Benchmark
+    @OperationsPerInvocation(OPS)
+    public void getRandom(Blackhole bh) {
+        for (int i = 0; i < OPS; i++) {
+            bh.consume(deque.get(indices[i]));
+        }
+    }
+
+    /** Random-access reads at OPS consecutive indices. */
+    @Benchmark
+    @OperationsPerInvocation(OPS)
+    public void getSequential(Blackhole bh) {
+        for (int i = 0; i < OPS; i++) {
+            bh.consume(deque.get(i));
+        }
+    }
+
+    /** One full pass with the deque's iterator; the score is in passes. */
+    @Benchmark
+    public void iterate(Blackhole bh) {
+        for (Integer x : (Iterable<Integer>) deque) {
+            bh.consume(x);
+        }
+    }
+
+    /**
+     * A shuffled mix of adds and removes at both ends and gets in the middle.
+     * Each invocation does as many adds as removes, so the size is back at
+     * its starting point at the end of every invocation.
+     */
+    @Benchmark
+    @OperationsPerInvocation(OPS)
+    public void mixed(Blackhole bh) {
+        for (int i = 0; i < OPS; i++) {
+            switch (mixedOps[i]) {
+                case 0:
+                    deque.addFirst(values[i]);
+                    break;
+                case 1:
+                    deque.addLast(values[i]);
+                    break;
+                case 2:
+                    bh.consume(deque.removeFirst());
+                    break;
+                case 3:
+                    bh.consume(deque.removeLast());
+                    break;
+                default:
+                    bh.consume(deque.get(deque.size() / 2));
+                    break;
+            }
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package bench;
+
+import deque.Deque;
+
+import java.util.Iterator;
+
+/**
+ * Adapts java.util.ArrayDeque to our Deque interface so that it can be used
+ * as a baseline in the benchmarks. java.util.ArrayDeque has no random access,
+ * so get(index) walks an iterator and is only here for completeness.
+ */
+public class JdkDeque<T> implements Deque<T>, Iterable<T> {
+    private final java.util.ArrayDeque<T> items;
+
+    public JdkDeque() {
+        items = new java.util.ArrayDeque<>();
+    }
+
+    @Override
+    public void addFirst(T item) {
+        items.addFirst(item);
+    }
+
+    @Override
+    public void addLast(T item) {
+        items.addLast(item);
+    }
+
+    @Override
+    public int size() {
+        return items.size();
+    }
+
+    @Override
+    public T removeFirst() {
+        return items.pollFirst();
+    }
+
+    @Override
+    public T removeLast() {
+        return items.pollLast();
+    }
+
+    @Override
+    public T get(int index) {
+        if (index < 0 || index >= items.size()) {
+            return null;
+        }
+        Iterator<T> it = items.iterator();
+        while (index > 0) {
+            it.next();
+            index -= 1;
+        }
+        return it.next();
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return items.iterator();
+    }
+}
@@ -0,0 +1,61 @@
+package bench;
+
+import deque.ArrayDeque;
+import deque.Deque;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * An ArrayDeque with every method synchronized on the deque, the baseline
+ * that the concurrent deques are meant to beat.
+ */
+public class SynchronizedDeque<T> implements Deque<T> {
+    private final ArrayDeque<T> items = new ArrayDeque<>();
+
+    @Override
+    public synchronized void addFirst(T item) {
+        items.addFirst(item);
+    }
+
+    @Override
+    public synchronized void addLast(T item) {
+        items.addLast(item);
+    }
+
+    @Override
+    public synchronized int size() {
+        return items.size();
+    }
+
+    @Override
+    public synchronized void printDeque() {
+        items.printDeque();
+    }
+
+    @Override
+    public synchronized T removeFirst() {
+        return items.removeFirst();
+    }
+
+    @Override
+    public synchronized T removeLast() {
+        return items.removeLast();
+    }
+
+    @Override
+    public synchronized T get(int index) {
+        return items.get(index);
+    }
+
+    /** Iterates over a snapshot taken while holding the lock. */
+    @Override
+    public synchronized Iterator<T> iterator() {
+        List<T> snapshot = new ArrayList<>(items.size());
+        for (T item : items) {
+            snapshot.add(item);
+        }
+        return snapshot.iterator();
+    }
+}
@@ -1,89 +1,142 @@
 package deque;
 
 
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
 import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.function.Consumer;
 
 public class ArrayDeque<T> implements Deque<T>, Iterable<T>{
+    /* The length of items is always a power of two, so an index is wrapped
+     * around the ring with "& (items.length - 1)" instead of a branch. */
+    private static final int MIN_CAPACITY = 8;
+
     private T[] items;
     private int size;
     private int nextFirst;
     private int nextLast;
+    /* Number of structural modifications, so that iterators can fail fast. */
+    int modCount;
 
     public ArrayDeque() {
-        items = (T[]) new Object[8];
+        items = (T[]) new Object[MIN_CAPACITY];
         size = 0;
         nextFirst = 3;
         nextLast = 4;
     }
-    /** double the size of the current array */
-    private void expand(int capacity) {
+
+    /** copy the items in order into a new array of the given power-of-two capacity */
+    private void resize(int capacity) {
         T[] a = (T[]) new Object[capacity];
-        if(nextFirst == 0) {
-            System.arraycopy(items, 0, a, 0, size);
-            nextFirst = size * 2 - 1;
-            nextLast = size;
-        } else {
-            if(nextFirst == size - 1) {
-                nextFirst = (size - 1)/2;
-                nextLast = (size - 1)/2 + 1;
-            }
-            System.arraycopy(items, 0, a, 0, nextLast);
-            System.arraycopy(items, nextLast, a, nextLast + size, size - nextLast);
-            nextFirst += size;
-        }
+        int first = (nextFirst + 1) & (items.length - 1);
+        int firstPart = Math.min(size, items.length - first);
+        System.arraycopy(items, first, a, 0, firstPart);
+        System.arraycopy(items, 0, a, firstPart, size - firstPart);
         items = a;
+        nextFirst = capacity - 1;
+        nextLast = size & (capacity - 1);
     }
 
-    public void contract() {
-        T[] a = (T[]) new Object[items.length / 4 + 1];
-        if(nextFirst < nextLast) {
-            System.arraycopy(items, nextFirst + 1, a, 0, size);
-        } else {
-            System.arraycopy(items, nextFirst + 1, a, 0, items.length - nextFirst - 1);
-            System.arraycopy(items, 0, a, items.length - nextFirst - 1, nextLast);
+    /** grow the array until it can hold at least n items */
+    private void ensureCapacity(int n) {
+        int capacity = items.length;
+        while (capacity < n) {
+            capacity *= 2;
+        }
+        if (capacity != items.length) {
+            resize(capacity);
+        }
+    }
+
+    /** halve the array while it is at most a quarter full */
+    private void contract() {
+        int capacity = items.length;
+        while (capacity >= 2 * MIN_CAPACITY && size <= capacity / 4) {
+            capacity /= 2;
+        }
+        if (capacity != items.length) {
+            resize(capacity);
         }
-        items = a;
-        nextFirst = items.length - 1;
-        nextLast = size;
     }
 
     @Override
     public void addFirst(T item) {
         if (size == items.length) {
-            expand(size * 2);
+            resize(size * 2);
         }
         items[nextFirst] = item;
+        nextFirst = (nextFirst - 1) & (items.length - 1);
         size += 1;
-        nextFirst -= 1;
-        if (nextFirst < 0) {
-            nextFirst = items.length - 1;
-        }
+        modCount += 1;
     }
 
     @Override
     public void addLast(T item) {
         if (size == items.length) {
-            expand(size * 2);
+            resize(size * 2);
         }
         items[nextLast] = item;
+        nextLast = (nextLast + 1) & (items.length - 1);
         size += 1;
-        nextLast += 1;
-        if (nextLast > items.length - 1) {
-            nextLast = 0;
-        }
+        modCount += 1;
+    }
+
+    /** Adds every item of SRC to the end of the deque, in order. */
+    public void addAll(T[] src) {
+        ensureCapacity(size + src.length);
+        int firstPart = Math.min(src.length, items.length - nextLast);
+        System.arraycopy(src, 0, items, nextLast, firstPart);
+        System.arraycopy(src, firstPart, items, 0, src.length - firstPart);
+        nextLast = (nextLast + src.length) & (items.length - 1);
+        size += src.length;
+        modCount += 1;
+    }
+
+    /**
+     * Removes items from the front of the deque into DST, starting at DST[0],
+     * until either the deque is empty or DST is full. Returns the number of
+     * items moved.
+     */
+    public int drainTo(T[] dst) {
+        return removeFirst(dst.length, dst);
     }
 
     @Override
-    public int size() {
-        return size;
+    public void addAllLast(T[] src) {
+        addAll(src);
     }
 
     @Override
-    public void printDeque() {
-        for(int i = 0; i < size; i++) {
-            System.out.print(get(i) + " ");
+    public void addAllLast(Collection<? extends T> src) {
+        addAll((T[]) src.toArray());
+    }
+
+    /** Same as the default, but with at most two System.arraycopy calls. */
+    @Override
+    public int removeFirst(int n, T[] dst) {
+        if (n < 0) {
+            throw new IllegalArgumentException("n must not be negative: " + n);
         }
-        System.out.println();
+        n = Math.min(n, Math.min(size, dst.length));
+        int first = (nextFirst + 1) & (items.length - 1);
+        int firstPart = Math.min(n, items.length - first);
+        System.arraycopy(items, first, dst, 0, firstPart);
+        System.arraycopy(items, 0, dst, firstPart, n - firstPart);
+        Arrays.fill(items, first, first + firstPart, null);
+        Arrays.fill(items, 0, n - firstPart, null);
+        nextFirst = (nextFirst + n) & (items.length - 1);
+        size -= n;
+        modCount += 1;
+        contract();
+        return n;
+    }
+
+    @Override
+    public int size() {
+        return size;
     }
 
     @Override
@@ -91,16 +144,12 @@ public class ArrayDeque<T> implements Deque<T>, Iterable<T>{
         if (size == 0) {
             return null;
         }
-        nextFirst += 1;
-        if (nextFirst >= items.length) {
-            nextFirst = 0;
-        }
+        nextFirst = (nextFirst + 1) & (items.length - 1);
         T itemToRemove = items[nextFirst];
         items[nextFirst] = null;
         size -= 1;
-        if (items.length >= 16 && size <= items.length * 0.25) {
-            contract();
-        }
+        modCount += 1;
+        contract();
         return itemToRemove;
     }
 
@@ -109,16 +158,12 @@ public class ArrayDeque<T> implements Deque<T>, Iterable<T>{
         if (size == 0) {
             return null;
         }
-        nextLast -= 1;
-        if (nextLast < 0) {
-            nextLast = items.length - 1;
-        }
+        nextLast = (nextLast - 1) & (items.length - 1);
         T itemToRemove = items[nextLast];
         items[nextLast] = null;
         size -= 1;
-        if (items.length >= 16 && size <= items.length * 0.25) {
-            contract();
-        }
+        modCount += 1;
+        contract();
         return itemToRemove;
     }
 
@@ -127,11 +172,37 @@ public class ArrayDeque<T> implements Deque<T>, Iterable<T>{
         if(index > size - 1 || index < 0) {
             return null;
         }
-        int location = nextFirst + 1 + index;
-        if(location >= items.length) {//if the index starts from 0, location >= items.length - 1/
-            location -= items.length;
+        return items[(nextFirst + 1 + index) & (items.length - 1)];
+    }
+
+    /**
+     * Removes the item in slot I of the array by shifting whichever side of
+     * the ring is shorter into the gap. Returns true if the items after slot
+     * I moved back by one, so that the next item is now in slot I.
+     * Does not contract the array, so live slot indices stay valid.
+     */
+    private boolean delete(int i) {
+        int mask = items.length - 1;
+        int first = (nextFirst + 1) & mask;
+        int index = (i - first) & mask;
+        boolean shiftBack = index >= size / 2;
+        if (!shiftBack) {
+            for (int j = i; j != first; j = (j - 1) & mask) {
+                items[j] = items[(j - 1) & mask];
+            }
+            items[first] = null;
+            nextFirst = first;
+        } else {
+            int last = (nextLast - 1) & mask;
+            for (int j = i; j != last; j = (j + 1) & mask) {
+                items[j] = items[(j + 1) & mask];
+            }
+            items[last] = null;
+            nextLast = last;
         }
-        return items[location];
+        size -= 1;
+        modCount += 1;
+        return shiftBack;
     }
 
     @Override
@@ -139,23 +210,140 @@ public class ArrayDeque<T> implements Deque<T>, Iterable<T>{
         return new ArrayDequeIterator();
     }
 
+    @Override
+    public void forEach(Consumer<? super T> action) {
+        int expectedModCount = modCount;
+        int n = size;
+        int mask = items.length - 1;
+        /* Checked before every read: once ACTION changes the deque, the mask
+         * and slot may no longer match the array. */
+        for (int i = 0, slot = (nextFirst + 1) & mask; i < n; i++, slot = (slot + 1) & mask) {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            action.accept(items[slot]);
+        }
+        if (modCount != expectedModCount) {
+            throw new ConcurrentModificationException();
+        }
+    }
+
+    @Override
+    public Spliterator<T> spliterator() {
+        return new ArrayDequeSpliterator(0, size, modCount);
+    }
+
+    /** Walks the slots of the array directly instead of calling get() each step. */
     private class ArrayDequeIterator implements  Iterator<T> {
-        private int wizPos;
+        private int cursor;
+        private int remaining;
+        private int lastRet;
+        private int expectedModCount;
 
         public ArrayDequeIterator() {
-            wizPos = 0;
+            cursor = (nextFirst + 1) & (items.length - 1);
+            remaining = size;
+            lastRet = -1;
+            expectedModCount = modCount;
         }
         @Override
         public boolean hasNext() {
-            return wizPos < size;
+            return remaining > 0;
         }
 
         @Override
         public T next() {
-            T returnItem = get(wizPos);
-            wizPos += 1;
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (remaining == 0) {
+                throw new NoSuchElementException();
+            }
+            T returnItem = items[cursor];
+            lastRet = cursor;
+            cursor = (cursor + 1) & (items.length - 1);
+            remaining -= 1;
             return returnItem;
         }
+
+        @Override
+        public void remove() {
+            if (lastRet < 0) {
+                throw new IllegalStateException();
+            }
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (delete(lastRet)) {
+                cursor = lastRet;
+            }
+            lastRet = -1;
+            expectedModCount = modCount;
+        }
+    }
+
+    /**
+     * Covers the items at indices [index, fence) and splits in half by index,
+     * so parallel streams get balanced chunks without copying.
+     */
+    private class ArrayDequeSpliterator implements Spliterator<T> {
+        private int index;
+        private final int fence;
+        private final int expectedModCount;
+
+        ArrayDequeSpliterator(int index, int fence, int expectedModCount) {
+            this.index = index;
+            this.fence = fence;
+            this.expectedModCount = expectedModCount;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (index >= fence) {
+                return false;
+            }
+            action.accept(items[(nextFirst + 1 + index) & (items.length - 1)]);
+            index += 1;
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super T> action) {
+            int mask = items.length - 1;
+            for (int slot = (nextFirst + 1 + index) & mask; index < fence; index++, slot = (slot + 1) & mask) {
+                if (modCount != expectedModCount) {
+                    throw new ConcurrentModificationException();
+                }
+                action.accept(items[slot]);
+            }
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+        }
+
+        @Override
+        public Spliterator<T> trySplit() {
+            int mid = (index + fence) >>> 1;
+            if (mid <= index) {
+                return null;
+            }
+            Spliterator<T> prefix = new ArrayDequeSpliterator(index, mid, expectedModCount);
+            index = mid;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return fence - index;
+        }
+
+        @Override
+        public int characteristics() {
+            return Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED;
+        }
     }
 
     @Override
@@ -102,4 +102,164 @@ public class ArrayDequeTest {
             assertEquals("Should have the same value", i, (double) lld1.removeLast(), 0.0);
         }
     }
+
+    @Test
+    public void addAllDrainToTest() {
+        ArrayDeque<Integer> ad = new ArrayDeque<>();
+        /* push the ring's start into the middle of the array so copies wrap */
+        for (int i = 0; i < 5; i++) {
+            ad.addLast(-1);
+            ad.removeFirst();
+        }
+        Integer[] src = new Integer[100];
+        for (int i = 0; i < src.length; i++) {
+            src[i] = i;
+        }
+        ad.addFirst(-1);
+        ad.addAll(src);
+        assertEquals(101, ad.size());
+        assertEquals(-1, (int) ad.removeFirst());
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i, (int) ad.get(i));
+        }
+
+        Integer[] dst = new Integer[30];
+        assertEquals(30, ad.drainTo(dst));
+        for (int i = 0; i < 30; i++) {
+            assertEquals(i, (int) dst[i]);
+        }
+        assertEquals(70, ad.size());
+        assertEquals(30, (int) ad.get(0));
+
+        dst = new Integer[100];
+        assertEquals(70, ad.drainTo(dst));
+        assertEquals(99, (int) dst[69]);
+        assertNull(dst[70]);
+        assertTrue(ad.isEmpty());
+    }
+
+    @Test
+    public void bulkOpsTest() {
+        ArrayDeque<Integer> ad = new ArrayDeque<>();
+        ad.addAllLast(java.util.List.of(1, 2, 3));
+        ad.addAllLast(new Integer[]{4, 5});
+        StringBuilder sb = new StringBuilder();
+        ad.printDeque(sb);
+        assertEquals("1 2 3 4 5 " + System.lineSeparator(), sb.toString());
+
+        Integer[] dst = new Integer[10];
+        assertEquals(2, ad.removeFirst(2, dst));
+        assertEquals(3, (int) ad.get(0));
+        assertEquals(3, ad.removeFirst(10, dst));
+        assertEquals(5, (int) dst[2]);
+        assertTrue(ad.isEmpty());
+        assertEquals(0, ad.removeFirst(10, dst));
+        assertEquals(0, ad.stream().count());
+
+        ad.addLast(6);
+        try {
+            ad.removeFirst(-1, dst);
+            fail("negative n should be rejected");
+        } catch (IllegalArgumentException e) {
+            assertEquals(1, ad.size());
+        }
+    }
+
+    /* Random operations, checked against java.util.ArrayDeque. */
+    @Test
+    public void randomizedTest() {
+        ArrayDeque<Integer> ad = new ArrayDeque<>();
+        java.util.ArrayDeque<Integer> expected = new java.util.ArrayDeque<>();
+        java.util.Random r = new java.util.Random(61);
+        for (int i = 0; i < 100000; i++) {
+            int op = r.nextInt(5);
+            if (op == 0) {
+                ad.addFirst(i);
+                expected.addFirst(i);
+            } else if (op == 1) {
+                ad.addLast(i);
+                expected.addLast(i);
+            } else if (op == 2) {
+                assertEquals(expected.pollFirst(), ad.removeFirst());
+            } else if (op == 3) {
+                assertEquals(expected.pollLast(), ad.removeLast());
+            } else if (!expected.isEmpty()) {
+                assertEquals(expected.peekLast(), ad.get(ad.size() - 1));
+            }
+            assertEquals(expected.size(), ad.size());
+        }
+    }
+
+    @Test
+    /* Iterates over a deque, removing the even items along the way. */
+    public void iteratorRemoveTest() {
+        ArrayDeque<Integer> d = new ArrayDeque<>();
+        for (int i = 0; i < 100; i++) {
+            d.addLast(i);
+        }
+        java.util.Iterator<Integer> it = d.iterator();
+        int expected = 0;
+        while (it.hasNext()) {
+            int x = it.next();
+            assertEquals(expected, x);
+            expected += 1;
+            if (x % 2 == 0) {
+                it.remove();
+            }
+        }
+        assertEquals(100, expected);
+        assertEquals(50, d.size());
+        int i = 1;
+        for (int x : d) {
+            assertEquals(i, x);
+            i += 2;
+        }
+        assertEquals(2500, d.parallelStream().mapToInt(Integer::intValue).sum());
+    }
+
+    @Test(expected = java.util.ConcurrentModificationException.class)
+    public void iteratorFailFastTest() {
+        ArrayDeque<Integer> d = new ArrayDeque<>();
+        d.addLast(1);
+        d.addLast(2);
+        for (int x : d) {
+            d.addFirst(x);
+        }
+    }
+
+    /* A change made by the action must stop forEach before the next item,
+     * not after it has walked slots of a shrunken or reallocated array. */
+    @Test
+    public void forEachFailFastTest() {
+        ArrayDeque<Integer> d = new ArrayDeque<>();
+        for (int i = 0; i < 64; i++) {
+            d.addLast(i);
+        }
+        int[] seen = new int[1];
+        try {
+            d.forEach(x -> {
+                seen[0] += 1;
+                while (d.size() > 1) {
+                    d.removeLast();
+                }
+            });
+            fail("forEach should notice the removals");
+        } catch (java.util.ConcurrentModificationException e) {
+            assertEquals(1, seen[0]);
+        }
+
+        for (int i = 0; i < 64; i++) {
+            d.addLast(i);
+        }
+        seen[0] = 0;
+        try {
+            d.spliterator().forEachRemaining(x -> {
+                seen[0] += 1;
+                d.removeLast();
+            });
+            fail("forEachRemaining should notice the removal");
+        } catch (java.util.ConcurrentModificationException e) {
+            assertEquals(1, seen[0]);
+        }
+    }
 }
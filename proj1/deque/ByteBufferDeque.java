@@ -0,0 +1,354 @@
+package deque;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A deque of fixed-width records stored as raw bytes in a direct or
+ * memory-mapped ByteBuffer ring, outside the Java heap. A long or double
+ * costs exactly 8 bytes, with no T[] slot and no box per value, and the
+ * garbage collector never has to scan the items.
+ *
+ * The Deque methods convert items through a RecordCodec. The typed
+ * accessors (addLastLong, getDouble, ...) read and write the first 8 bytes of
+ * a record directly and never allocate; getLong(index, field) and friends
+ * read one field of a wider struct record. They throw
+ * IndexOutOfBoundsException if the field does not fit in a record. As with
+ * DoubleDeque, the typed removes throw NoSuchElementException on an empty
+ * deque. If the codec throws while writing an item, the deque is unchanged.
+ *
+ * The ring holds a power-of-two number of records. A direct deque doubles
+ * when full, up to the 2 GiB limit of a single ByteBuffer, which is 2^27
+ * records of 8 bytes (about 134 million longs or doubles). A
+ * mapped deque has a fixed capacity and throws IllegalStateException when
+ * full. Only the records live in the file; the ring's ends are not persisted.
+ */
+public class ByteBufferDeque<T> implements Deque<T>, Iterable<T> {
+    private static final int DEFAULT_CAPACITY = 1024;
+
+    private final RecordCodec<T> codec;
+    private final int width;
+    private final boolean growable;
+    private ByteBuffer buf;
+    /* Capacity in records; always a power of two. */
+    private int capacity;
+    private int size;
+    private int nextFirst;
+    private int nextLast;
+    private int modCount;
+
+    /** Creates an empty deque in a growable direct buffer. */
+    public ByteBufferDeque(RecordCodec<T> codec) {
+        this(codec, DEFAULT_CAPACITY);
+    }
+
+    /** Creates an empty deque in a direct buffer that holds CAPACITY records before growing. */
+    public ByteBufferDeque(RecordCodec<T> codec, int capacity) {
+        this(codec, ByteBuffer.allocateDirect(bytesFor(codec, roundUp(capacity))), true);
+    }
+
+    private ByteBufferDeque(RecordCodec<T> codec, ByteBuffer buf, boolean growable) {
+        this.codec = codec;
+        this.width = codec.width();
+        this.growable = growable;
+        this.buf = buf.order(ByteOrder.nativeOrder());
+        this.capacity = Integer.highestOneBit(buf.capacity() / width);
+        size = 0;
+        nextFirst = capacity - 1;
+        nextLast = 0;
+    }
+
+    /**
+     * Creates an empty deque whose records live in FILE, memory-mapped, with
+     * room for CAPACITY records (rounded up to a power of two). The file is
+     * created if needed and grown to fit.
+     */
+    public static <T> ByteBufferDeque<T> mapped(RecordCodec<T> codec, Path file, int capacity)
+            throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer map = ch.map(FileChannel.MapMode.READ_WRITE, 0,
+                    bytesFor(codec, roundUp(capacity)));
+            return new ByteBufferDeque<>(codec, map, false);
+        }
+    }
+
+    private static int roundUp(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        }
+        int length = 1;
+        while (length < capacity) {
+            length *= 2;
+        }
+        return length;
+    }
+
+    private static int bytesFor(RecordCodec<?> codec, int records) {
+        long bytes = (long) records * codec.width();
+        if (bytes > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException(records + " records do not fit in one ByteBuffer");
+        }
+        return (int) bytes;
+    }
+
+    /** Returns the number of records the ring holds before it must grow. */
+    public int capacity() {
+        return capacity;
+    }
+
+    /** Copies the records in order into a direct buffer twice the size. */
+    private void grow() {
+        if (!growable || (long) capacity * 2 * width > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Deque full");
+        }
+        int newCapacity = capacity * 2;
+        ByteBuffer a = ByteBuffer.allocateDirect(newCapacity * width).order(ByteOrder.nativeOrder());
+        int first = (nextFirst + 1) & (capacity - 1);
+        int firstPart = Math.min(size, capacity - first);
+        copy(buf, first * width, a, 0, firstPart * width);
+        copy(buf, 0, a, firstPart * width, (size - firstPart) * width);
+        buf = a;
+        capacity = newCapacity;
+        nextFirst = capacity - 1;
+        nextLast = size;
+    }
+
+    private static void copy(ByteBuffer src, int srcPos, ByteBuffer dst, int dstPos, int length) {
+        ByteBuffer s = src.duplicate();
+        s.limit(srcPos + length).position(srcPos);
+        ByteBuffer d = dst.duplicate();
+        d.position(dstPos);
+        d.put(s);
+    }
+
+    /* An add writes the record into the free slot at one end first, then
+     * commits it: reserveFirst/reserveLast make room and return the slot's
+     * byte offset without changing the deque, and commitFirst/commitLast
+     * take it in. A write that throws in between leaves nothing behind.
+     * Reserve before reading buf, since growing replaces it. */
+
+    private int reserveFirst() {
+        if (size == capacity) {
+            grow();
+        }
+        return nextFirst * width;
+    }
+
+    private void commitFirst() {
+        nextFirst = (nextFirst - 1) & (capacity - 1);
+        size += 1;
+        modCount += 1;
+    }
+
+    private int reserveLast() {
+        if (size == capacity) {
+            grow();
+        }
+        return nextLast * width;
+    }
+
+    private void commitLast() {
+        nextLast = (nextLast + 1) & (capacity - 1);
+        size += 1;
+        modCount += 1;
+    }
+
+    /* The two helpers below move one end of the ring and return the byte
+     * offset of the record that was removed. */
+
+    private int popFirst() {
+        if (size == 0) {
+            throw new NoSuchElementException("removeFirst() on an empty deque");
+        }
+        nextFirst = (nextFirst + 1) & (capacity - 1);
+        size -= 1;
+        modCount += 1;
+        return nextFirst * width;
+    }
+
+    private int popLast() {
+        if (size == 0) {
+            throw new NoSuchElementException("removeLast() on an empty deque");
+        }
+        nextLast = (nextLast - 1) & (capacity - 1);
+        size -= 1;
+        modCount += 1;
+        return nextLast * width;
+    }
+
+    /** Returns the byte offset of the record at INDEX. */
+    private int offsetOf(int index) {
+        if (index > size - 1 || index < 0) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        return ((nextFirst + 1 + index) & (capacity - 1)) * width;
+    }
+
+    /** Checks that a field of BYTES bytes at byte FIELD fits in a record. */
+    private void checkField(int field, int bytes) {
+        if (field < 0 || field > width - bytes) {
+            throw new IndexOutOfBoundsException("Field: " + field + ", Bytes: " + bytes
+                    + ", Width: " + width);
+        }
+    }
+
+    @Override
+    public void addFirst(T item) {
+        int offset = reserveFirst();
+        codec.write(buf, offset, item);
+        commitFirst();
+    }
+
+    @Override
+    public void addLast(T item) {
+        int offset = reserveLast();
+        codec.write(buf, offset, item);
+        commitLast();
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public T removeFirst() {
+        if (size == 0) {
+            return null;
+        }
+        return codec.read(buf, popFirst());
+    }
+
+    @Override
+    public T removeLast() {
+        if (size == 0) {
+            return null;
+        }
+        return codec.read(buf, popLast());
+    }
+
+    @Override
+    public T get(int index) {
+        if (index > size - 1 || index < 0) {
+            return null;
+        }
+        return codec.read(buf, offsetOf(index));
+    }
+
+    public void addFirstLong(long item) {
+        checkField(0, Long.BYTES);
+        int offset = reserveFirst();
+        buf.putLong(offset, item);
+        commitFirst();
+    }
+
+    public void addLastLong(long item) {
+        checkField(0, Long.BYTES);
+        int offset = reserveLast();
+        buf.putLong(offset, item);
+        commitLast();
+    }
+
+    public long removeFirstLong() {
+        checkField(0, Long.BYTES);
+        return buf.getLong(popFirst());
+    }
+
+    public long removeLastLong() {
+        checkField(0, Long.BYTES);
+        return buf.getLong(popLast());
+    }
+
+    public long getLong(int index) {
+        checkField(0, Long.BYTES);
+        return buf.getLong(offsetOf(index));
+    }
+
+    /** Returns the long at byte FIELD of the record at INDEX. */
+    public long getLong(int index, int field) {
+        checkField(field, Long.BYTES);
+        return buf.getLong(offsetOf(index) + field);
+    }
+
+    public void addFirstDouble(double item) {
+        checkField(0, Double.BYTES);
+        int offset = reserveFirst();
+        buf.putDouble(offset, item);
+        commitFirst();
+    }
+
+    public void addLastDouble(double item) {
+        checkField(0, Double.BYTES);
+        int offset = reserveLast();
+        buf.putDouble(offset, item);
+        commitLast();
+    }
+
+    public double removeFirstDouble() {
+        checkField(0, Double.BYTES);
+        return buf.getDouble(popFirst());
+    }
+
+    public double removeLastDouble() {
+        checkField(0, Double.BYTES);
+        return buf.getDouble(popLast());
+    }
+
+    public double getDouble(int index) {
+        checkField(0, Double.BYTES);
+        return buf.getDouble(offsetOf(index));
+    }
+
+    /** Returns the double at byte FIELD of the record at INDEX. */
+    public double getDouble(int index, int field) {
+        checkField(field, Double.BYTES);
+        return buf.getDouble(offsetOf(index) + field);
+    }
+
+    /** Returns the int at byte FIELD of the record at INDEX. */
+    public int getInt(int index, int field) {
+        checkField(field, Integer.BYTES);
+        return buf.getInt(offsetOf(index) + field);
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return new ByteBufferDequeIterator();
+    }
+
+    private class ByteBufferDequeIterator implements Iterator<T> {
+        private int wizPos;
+        private final int expectedModCount;
+
+        ByteBufferDequeIterator() {
+            wizPos = 0;
+            expectedModCount = modCount;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return wizPos < size;
+        }
+
+        @Override
+        public T next() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (wizPos >= size) {
+                throw new NoSuchElementException();
+            }
+            T returnItem = codec.read(buf, offsetOf(wizPos));
+            wizPos += 1;
+            return returnItem;
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package deque;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.NoSuchElementException;
+
+import static org.junit.Assert.*;
+
+public class ByteBufferDequeTest {
+    @Test
+    public void genericOperationsTest() {
+        ByteBufferDeque<Long> d = new ByteBufferDeque<>(RecordCodec.LONG, 4);
+        assertTrue(d.isEmpty());
+        assertNull(d.removeFirst());
+        d.addLast(2L);
+        d.addFirst(1L);
+        d.addLast(3L);
+        assertEquals(3, d.size());
+        assertEquals(1L, (long) d.get(0));
+        assertEquals(3L, (long) d.get(2));
+        assertNull(d.get(3));
+        long expected = 1;
+        for (long x : d) {
+            assertEquals(expected, x);
+            expected += 1;
+        }
+        assertEquals(3L, (long) d.removeLast());
+        assertEquals(1L, (long) d.removeFirst());
+    }
+
+    @Test
+    public void typedAccessorsGrowTest() {
+        ByteBufferDeque<Double> d = new ByteBufferDeque<>(RecordCodec.DOUBLE, 8);
+        for (int i = 0; i < 100000; i++) {
+            d.addLastDouble(i);
+            d.addFirstDouble(-i);
+        }
+        assertEquals(200000, d.size());
+        assertTrue(d.capacity() >= 200000);
+        assertEquals(-99999.0, d.getDouble(0), 0.0);
+        assertEquals(99999.0, d.getDouble(199999), 0.0);
+        for (int i = 99999; i >= 0; i--) {
+            assertEquals(-i, d.removeFirstDouble(), 0.0);
+            assertEquals(i, d.removeLastDouble(), 0.0);
+        }
+        assertTrue(d.isEmpty());
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void typedRemoveEmptyTest() {
+        ByteBufferDeque<Long> d = new ByteBufferDeque<>(RecordCodec.LONG);
+        d.removeFirstLong();
+    }
+
+    /* A 16-byte struct: a long timestamp followed by a double sample. */
+    @Test
+    public void structRecordTest() {
+        RecordCodec<double[]> sample = new RecordCodec<double[]>() {
+            @Override
+            public int width() {
+                return 16;
+            }
+
+            @Override
+            public void write(ByteBuffer buf, int offset, double[] item) {
+                buf.putLong(offset, (long) item[0]);
+                buf.putDouble(offset + 8, item[1]);
+            }
+
+            @Override
+            public double[] read(ByteBuffer buf, int offset) {
+                return new double[] {buf.getLong(offset), buf.getDouble(offset + 8)};
+            }
+        };
+        ByteBufferDeque<double[]> d = new ByteBufferDeque<>(sample, 2);
+        for (int i = 0; i < 10; i++) {
+            d.addLast(new double[] {i, i * 0.5});
+        }
+        assertEquals(7L, d.getLong(7, 0));
+        assertEquals(3.5, d.getDouble(7, 8), 0.0);
+        assertArrayEquals(new double[] {0, 0}, d.removeFirst(), 0.0);
+    }
+
+    /* A codec that throws must not leave a half-added record behind. */
+    @Test
+    public void failedWriteTest() {
+        ByteBufferDeque<Long> d = new ByteBufferDeque<>(RecordCodec.LONG, 2);
+        d.addLast(1L);
+        d.addLast(2L);
+        try {
+            d.addFirst(null);
+            fail("the LONG codec should reject null");
+        } catch (NullPointerException e) {
+            // expected
+        }
+        try {
+            d.addLast(null);
+            fail("the LONG codec should reject null");
+        } catch (NullPointerException e) {
+            // expected
+        }
+        assertEquals(2, d.size());
+        assertEquals(1L, (long) d.get(0));
+        assertEquals(2L, (long) d.removeLast());
+    }
+
+    @Test
+    public void fieldBoundsTest() {
+        RecordCodec<Integer> narrow = new RecordCodec<Integer>() {
+            @Override
+            public int width() {
+                return Integer.BYTES;
+            }
+
+            @Override
+            public void write(ByteBuffer buf, int offset, Integer item) {
+                buf.putInt(offset, item);
+            }
+
+            @Override
+            public Integer read(ByteBuffer buf, int offset) {
+                return buf.getInt(offset);
+            }
+        };
+        ByteBufferDeque<Integer> d = new ByteBufferDeque<>(narrow, 4);
+        d.addLast(7);
+        d.addLast(8);
+        assertEquals(8, d.getInt(1, 0));
+        try {
+            d.addLastLong(1);
+            fail("a long does not fit in a 4-byte record");
+        } catch (IndexOutOfBoundsException e) {
+            assertEquals(2, d.size());
+        }
+        try {
+            d.removeFirstDouble();
+            fail("a double does not fit in a 4-byte record");
+        } catch (IndexOutOfBoundsException e) {
+            assertEquals(2, d.size());
+        }
+        try {
+            d.getInt(0, 1);
+            fail("an int at byte 1 runs past a 4-byte record");
+        } catch (IndexOutOfBoundsException e) {
+            // expected
+        }
+        try {
+            d.getInt(0, -4);
+            fail("negative field");
+        } catch (IndexOutOfBoundsException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void mappedTest() throws IOException {
+        Path file = Files.createTempFile("deque", ".bin");
+        try {
+            ByteBufferDeque<Long> d = ByteBufferDeque.mapped(RecordCodec.LONG, file, 1000);
+            assertEquals(1024, d.capacity());
+            for (long i = 0; i < 1024; i++) {
+                d.addLastLong(i);
+            }
+            try {
+                d.addLastLong(-1);
+                fail("a mapped deque should not grow");
+            } catch (IllegalStateException e) {
+                // expected
+            }
+            assertEquals(0L, d.removeFirstLong());
+            d.addLastLong(1024);
+            assertEquals(1024L, d.getLong(1023));
+            assertEquals(1024L * Long.BYTES, Files.size(file));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
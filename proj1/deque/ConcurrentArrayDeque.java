@@ -0,0 +1,268 @@
+package deque;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A bounded, thread-safe Deque backed by a fixed power-of-two ring, for
+ * work queues shared by many producers and consumers.
+ *
+ * Each end has its own lock, after Michael and Scott's two-lock queue, so a
+ * thread working at the front never waits for one working at the back. The
+ * items sit at positions head..tail - 1, and each end moves only its own
+ * index. An operation at one end holds only that end's lock while the deque
+ * has at least two items and at least two free slots: the other end then has
+ * at most one operation under way, which touches a different slot. Closer to
+ * empty or full, the two ends could reach for the same slot, so the operation
+ * takes both locks, front first, and works from the exact size. Operations at
+ * the same end still take turns.
+ *
+ * There is no resizing, no allocation and no waiting while a lock is held.
+ * addFirst/addLast throw an IllegalStateException when the deque is full; use
+ * offerFirst/offerLast to find out without an exception. Null items are not
+ * allowed. size() reads the two indices without locking, so while both ends
+ * are busy it may be off by the operations under way.
+ *
+ * Iteration works on a snapshot taken when the iterator is created.
+ */
+public class ConcurrentArrayDeque<T> implements Deque<T>, Iterable<T> {
+    private final T[] items;
+    private final int mask;
+    private final ReentrantLock frontLock;
+    private final ReentrantLock backLock;
+    /* The position of the first item, written under frontLock. addLast
+     * counts positions up and addFirst counts them down, wrapping past the
+     * int range; the slot of a position is position & mask. */
+    private volatile int head;
+    /* The position after the last item, written under backLock. */
+    private volatile int tail;
+
+    /** Creates an empty deque that holds at most CAPACITY items. */
+    public ConcurrentArrayDeque(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        }
+        int length = 1;
+        while (length < capacity) {
+            length *= 2;
+        }
+        items = (T[]) new Object[length];
+        mask = length - 1;
+        frontLock = new ReentrantLock();
+        backLock = new ReentrantLock();
+        head = 0;
+        tail = 0;
+    }
+
+    /** Returns the maximum number of items this deque can hold. */
+    public int capacity() {
+        return items.length;
+    }
+
+    private void lockBoth() {
+        frontLock.lock();
+        backLock.lock();
+    }
+
+    private void unlockBoth() {
+        backLock.unlock();
+        frontLock.unlock();
+    }
+
+    /** Adds ITEM to the front, returning false if the deque is full. */
+    public boolean offerFirst(T item) {
+        if (item == null) {
+            throw new NullPointerException();
+        }
+        frontLock.lock();
+        try {
+            int h = head;
+            if (items.length - (tail - h) >= 2) {
+                items[(h - 1) & mask] = item;
+                head = h - 1;
+                return true;
+            }
+        } finally {
+            frontLock.unlock();
+        }
+        lockBoth();
+        try {
+            int h = head;
+            if (tail - h == items.length) {
+                return false;
+            }
+            items[(h - 1) & mask] = item;
+            head = h - 1;
+            return true;
+        } finally {
+            unlockBoth();
+        }
+    }
+
+    /** Adds ITEM to the back, returning false if the deque is full. */
+    public boolean offerLast(T item) {
+        if (item == null) {
+            throw new NullPointerException();
+        }
+        backLock.lock();
+        try {
+            int t = tail;
+            if (items.length - (t - head) >= 2) {
+                items[t & mask] = item;
+                tail = t + 1;
+                return true;
+            }
+        } finally {
+            backLock.unlock();
+        }
+        lockBoth();
+        try {
+            int t = tail;
+            if (t - head == items.length) {
+                return false;
+            }
+            items[t & mask] = item;
+            tail = t + 1;
+            return true;
+        } finally {
+            unlockBoth();
+        }
+    }
+
+    @Override
+    public void addFirst(T item) {
+        if (!offerFirst(item)) {
+            throw new IllegalStateException("Deque full");
+        }
+    }
+
+    @Override
+    public void addLast(T item) {
+        if (!offerLast(item)) {
+            throw new IllegalStateException("Deque full");
+        }
+    }
+
+    @Override
+    public int size() {
+        int size = tail - head;
+        return Math.max(0, Math.min(items.length, size));
+    }
+
+    @Override
+    public T removeFirst() {
+        frontLock.lock();
+        try {
+            int h = head;
+            if (tail - h >= 2) {
+                return takeFirst(h);
+            }
+        } finally {
+            frontLock.unlock();
+        }
+        lockBoth();
+        try {
+            int h = head;
+            if (tail == h) {
+                return null;
+            }
+            return takeFirst(h);
+        } finally {
+            unlockBoth();
+        }
+    }
+
+    /* Takes the item at position H, the first, with frontLock held. */
+    private T takeFirst(int h) {
+        int slot = h & mask;
+        T item = items[slot];
+        items[slot] = null;
+        head = h + 1;
+        return item;
+    }
+
+    @Override
+    public T removeLast() {
+        backLock.lock();
+        try {
+            int t = tail;
+            if (t - head >= 2) {
+                return takeLast(t);
+            }
+        } finally {
+            backLock.unlock();
+        }
+        lockBoth();
+        try {
+            int t = tail;
+            if (t == head) {
+                return null;
+            }
+            return takeLast(t);
+        } finally {
+            unlockBoth();
+        }
+    }
+
+    /* Takes the item before position T, the last, with backLock held. */
+    private T takeLast(int t) {
+        int slot = (t - 1) & mask;
+        T item = items[slot];
+        items[slot] = null;
+        tail = t - 1;
+        return item;
+    }
+
+    @Override
+    public T get(int index) {
+        lockBoth();
+        try {
+            if (index > tail - head - 1 || index < 0) {
+                return null;
+            }
+            return items[(head + index) & mask];
+        } finally {
+            unlockBoth();
+        }
+    }
+
+    /** Returns a snapshot of the items, front to back. */
+    private Object[] toArray() {
+        lockBoth();
+        try {
+            int size = tail - head;
+            Object[] a = new Object[size];
+            int first = head & mask;
+            int firstPart = Math.min(size, items.length - first);
+            System.arraycopy(items, first, a, 0, firstPart);
+            System.arraycopy(items, 0, a, firstPart, size - firstPart);
+            return a;
+        } finally {
+            unlockBoth();
+        }
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        Object[] snapshot = toArray();
+        return new Iterator<T>() {
+            private int wizPos = 0;
+
+            @Override
+            public boolean hasNext() {
+                return wizPos < snapshot.length;
+            }
+
+            @Override
+            public T next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                T returnItem = (T) snapshot[wizPos];
+                wizPos += 1;
+                return returnItem;
+            }
+        };
+    }
+}
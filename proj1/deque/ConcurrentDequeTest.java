@@ -0,0 +1,185 @@
+package deque;
+
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static org.junit.Assert.*;
+
+/** Multi-threaded stress tests for the concurrent deques. */
+public class ConcurrentDequeTest {
+    private static final int PRODUCERS = 4;
+    private static final int CONSUMERS = 4;
+    private static final int ITEMS_PER_PRODUCER = 100000;
+
+    @Test
+    public void singleThreadedTest() {
+        singleThreaded(new ConcurrentLinkedDeque<>());
+        singleThreaded(new ConcurrentArrayDeque<>(16));
+    }
+
+    private static void singleThreaded(Deque<Integer> d) {
+        assertTrue(d.isEmpty());
+        assertNull(d.removeFirst());
+        assertNull(d.removeLast());
+        d.addLast(2);
+        d.addFirst(1);
+        d.addLast(3);
+        assertEquals(3, d.size());
+        assertEquals(1, (int) d.get(0));
+        assertEquals(3, (int) d.get(2));
+        assertNull(d.get(3));
+        int expected = 1;
+        for (int x : (Iterable<Integer>) d) {
+            assertEquals(expected, x);
+            expected += 1;
+        }
+        assertEquals(3, (int) d.removeLast());
+        assertEquals(1, (int) d.removeFirst());
+        assertEquals(2, (int) d.removeFirst());
+        assertTrue(d.isEmpty());
+    }
+
+    /* Random operations on one thread, checked against java.util.ArrayDeque. */
+    @Test
+    public void linkedRandomizedTest() {
+        ConcurrentLinkedDeque<Integer> d = new ConcurrentLinkedDeque<>();
+        java.util.ArrayDeque<Integer> expected = new java.util.ArrayDeque<>();
+        java.util.Random r = new java.util.Random(61);
+        for (int i = 0; i < 100000; i++) {
+            int op = r.nextInt(4);
+            if (op == 0) {
+                d.addFirst(i);
+                expected.addFirst(i);
+            } else if (op == 1) {
+                d.addLast(i);
+                expected.addLast(i);
+            } else if (op == 2) {
+                assertEquals(expected.pollFirst(), d.removeFirst());
+            } else {
+                assertEquals(expected.pollLast(), d.removeLast());
+            }
+            assertEquals(expected.size(), d.size());
+        }
+        java.util.Iterator<Integer> it = expected.iterator();
+        for (int x : d) {
+            assertEquals(it.next(), (Integer) x);
+        }
+        assertFalse(it.hasNext());
+    }
+
+    @Test
+    public void boundedTest() {
+        ConcurrentArrayDeque<Integer> d = new ConcurrentArrayDeque<>(4);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(d.offerLast(i));
+        }
+        assertFalse(d.offerFirst(-1));
+        assertEquals(0, (int) d.removeFirst());
+        assertTrue(d.offerFirst(-1));
+        assertEquals(-1, (int) d.get(0));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void addToFullTest() {
+        ConcurrentArrayDeque<Integer> d = new ConcurrentArrayDeque<>(2);
+        d.addLast(1);
+        d.addLast(2);
+        d.addFirst(3);
+    }
+
+    @Test
+    public void linkedStressTest() throws InterruptedException {
+        stress(new ConcurrentLinkedDeque<>());
+    }
+
+    @Test
+    public void arrayStressTest() throws InterruptedException {
+        stress(new ConcurrentArrayDeque<>(1024));
+    }
+
+    /* Four slots keep the ring near empty or full, where both locks are taken. */
+    @Test
+    public void arrayNearlyFullStressTest() throws InterruptedException {
+        stress(new ConcurrentArrayDeque<>(4));
+    }
+
+    /**
+     * Producers push distinct items at both ends while consumers pop from both
+     * ends. Every item must come out exactly once.
+     */
+    private static void stress(Deque<Integer> d) throws InterruptedException {
+        int total = PRODUCERS * ITEMS_PER_PRODUCER;
+        AtomicIntegerArray seen = new AtomicIntegerArray(total);
+        AtomicInteger consumed = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] threads = new Thread[PRODUCERS + CONSUMERS];
+
+        for (int p = 0; p < PRODUCERS; p++) {
+            int base = p * ITEMS_PER_PRODUCER;
+            threads[p] = new Thread(() -> {
+                await(start);
+                for (int i = 0; i < ITEMS_PER_PRODUCER; i++) {
+                    Integer item = base + i;
+                    while (!offer(d, item, i % 2 == 0)) {
+                        Thread.yield();
+                    }
+                }
+            });
+        }
+        for (int c = 0; c < CONSUMERS; c++) {
+            boolean front = c % 2 == 0;
+            threads[PRODUCERS + c] = new Thread(() -> {
+                await(start);
+                while (consumed.get() < total) {
+                    Integer item = front ? d.removeFirst() : d.removeLast();
+                    if (item == null) {
+                        Thread.yield();
+                        continue;
+                    }
+                    seen.incrementAndGet(item);
+                    consumed.incrementAndGet();
+                }
+            });
+        }
+
+        for (Thread t : threads) {
+            t.start();
+        }
+        start.countDown();
+        for (Thread t : threads) {
+            t.join(60000);
+            assertFalse("stress test timed out", t.isAlive());
+        }
+
+        assertEquals(total, consumed.get());
+        for (int i = 0; i < total; i++) {
+            assertEquals("item " + i + " should be removed exactly once", 1, seen.get(i));
+        }
+        assertTrue(d.isEmpty());
+        assertEquals(0, d.size());
+    }
+
+    private static boolean offer(Deque<Integer> d, Integer item, boolean front) {
+        if (d instanceof ConcurrentArrayDeque) {
+            ConcurrentArrayDeque<Integer> bounded = (ConcurrentArrayDeque<Integer>) d;
+            return front ? bounded.offerFirst(item) : bounded.offerLast(item);
+        }
+        if (front) {
+            d.addFirst(item);
+        } else {
+            d.addLast(item);
+        }
+        return true;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
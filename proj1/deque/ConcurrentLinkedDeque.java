@@ -0,0 +1,318 @@
+package deque;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * An unbounded, thread-safe Deque whose operations never take a lock, after
+ * Michael's CAS-based deque ("CAS-Based Lock-Free Algorithm for Shared
+ * Deques", 2003). Items live in a doubly linked list of nodes. Both ends of
+ * the list, a status and the size are packed into one immutable Anchor, and
+ * every add or remove is a single compare-and-set of the anchor, so a thread
+ * that is descheduled mid-operation never holds up the others.
+ *
+ * Adding at an end takes two steps: the CAS that swings the anchor to the new
+ * node and marks it RPUSH or LPUSH, then a CAS that links the old end node to
+ * it. Until the second step lands the anchor is unstable, and any thread that
+ * finds it so finishes the link itself before trying its own operation.
+ *
+ * Every operation contends on the one anchor, so the ends do not scale
+ * independently; the point is that none of them ever blocks. Null items are
+ * not allowed. size() is exact. get(), printDeque() and iteration are weakly
+ * consistent: they walk the list without locking, may or may not see changes
+ * made during the walk, and never throw ConcurrentModificationException.
+ */
+public class ConcurrentLinkedDeque<T> implements Deque<T>, Iterable<T> {
+    private static final int STABLE = 0;
+    private static final int RPUSH = 1;
+    private static final int LPUSH = 2;
+
+    private static final VarHandle ANCHOR;
+    private static final VarHandle PREV;
+    private static final VarHandle NEXT;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            ANCHOR = lookup.findVarHandle(ConcurrentLinkedDeque.class, "anchor", Anchor.class);
+            PREV = lookup.findVarHandle(Node.class, "prev", Node.class);
+            NEXT = lookup.findVarHandle(Node.class, "next", Node.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private static class Node<T> {
+        /* Cleared by the thread that removes the node. */
+        T item;
+        volatile Node<T> prev;
+        volatile Node<T> next;
+
+        Node(T item) {
+            this.item = item;
+        }
+    }
+
+    /** The ends of the list as of one linearization point. Never mutated. */
+    private static class Anchor<T> {
+        final Node<T> first;
+        final Node<T> last;
+        final int status;
+        final int size;
+
+        Anchor(Node<T> first, Node<T> last, int status, int size) {
+            this.first = first;
+            this.last = last;
+            this.status = status;
+            this.size = size;
+        }
+    }
+
+    private volatile Anchor<T> anchor;
+
+    public ConcurrentLinkedDeque() {
+        anchor = new Anchor<>(null, null, STABLE, 0);
+    }
+
+    private boolean casAnchor(Anchor<T> expected, Anchor<T> update) {
+        return ANCHOR.compareAndSet(this, expected, update);
+    }
+
+    @Override
+    public void addFirst(T item) {
+        if (item == null) {
+            throw new NullPointerException();
+        }
+        Node<T> node = new Node<>(item);
+        while (true) {
+            Anchor<T> a = anchor;
+            if (a.first == null) {
+                if (casAnchor(a, new Anchor<>(node, node, STABLE, 1))) {
+                    return;
+                }
+            } else if (a.status == STABLE) {
+                node.next = a.first;
+                Anchor<T> pushed = new Anchor<>(node, a.last, LPUSH, a.size + 1);
+                if (casAnchor(a, pushed)) {
+                    stabilizeFirst(pushed);
+                    return;
+                }
+            } else {
+                stabilize(a);
+            }
+        }
+    }
+
+    @Override
+    public void addLast(T item) {
+        if (item == null) {
+            throw new NullPointerException();
+        }
+        Node<T> node = new Node<>(item);
+        while (true) {
+            Anchor<T> a = anchor;
+            if (a.last == null) {
+                if (casAnchor(a, new Anchor<>(node, node, STABLE, 1))) {
+                    return;
+                }
+            } else if (a.status == STABLE) {
+                node.prev = a.last;
+                Anchor<T> pushed = new Anchor<>(a.first, node, RPUSH, a.size + 1);
+                if (casAnchor(a, pushed)) {
+                    stabilizeLast(pushed);
+                    return;
+                }
+            } else {
+                stabilize(a);
+            }
+        }
+    }
+
+    private void stabilize(Anchor<T> a) {
+        if (a.status == RPUSH) {
+            stabilizeLast(a);
+        } else {
+            stabilizeFirst(a);
+        }
+    }
+
+    /*
+     * Points the old first node back at the new first node, then marks A
+     * stable. Gives up as soon as the anchor has moved on from A, since then
+     * another thread has already done the work.
+     */
+    private void stabilizeFirst(Anchor<T> a) {
+        Node<T> next = a.first.next;
+        if (anchor != a) {
+            return;
+        }
+        Node<T> nextPrev = next.prev;
+        if (nextPrev != a.first) {
+            if (anchor != a || !PREV.compareAndSet(next, nextPrev, a.first)) {
+                return;
+            }
+        }
+        casAnchor(a, new Anchor<>(a.first, a.last, STABLE, a.size));
+    }
+
+    /* Mirror image of stabilizeFirst. */
+    private void stabilizeLast(Anchor<T> a) {
+        Node<T> prev = a.last.prev;
+        if (anchor != a) {
+            return;
+        }
+        Node<T> prevNext = prev.next;
+        if (prevNext != a.last) {
+            if (anchor != a || !NEXT.compareAndSet(prev, prevNext, a.last)) {
+                return;
+            }
+        }
+        casAnchor(a, new Anchor<>(a.first, a.last, STABLE, a.size));
+    }
+
+    @Override
+    public int size() {
+        return anchor.size;
+    }
+
+    @Override
+    public T removeFirst() {
+        Anchor<T> a;
+        Node<T> next;
+        while (true) {
+            a = anchor;
+            if (a.first == null) {
+                return null;
+            }
+            if (a.first == a.last) {
+                next = null;
+                if (casAnchor(a, new Anchor<>(null, null, STABLE, 0))) {
+                    break;
+                }
+            } else if (a.status == STABLE) {
+                next = a.first.next;
+                if (casAnchor(a, new Anchor<>(next, a.last, STABLE, a.size - 1))) {
+                    break;
+                }
+            } else {
+                stabilize(a);
+            }
+        }
+        return unlink(a.first, next, PREV);
+    }
+
+    @Override
+    public T removeLast() {
+        Anchor<T> a;
+        Node<T> prev;
+        while (true) {
+            a = anchor;
+            if (a.last == null) {
+                return null;
+            }
+            if (a.first == a.last) {
+                prev = null;
+                if (casAnchor(a, new Anchor<>(null, null, STABLE, 0))) {
+                    break;
+                }
+            } else if (a.status == STABLE) {
+                prev = a.last.prev;
+                if (casAnchor(a, new Anchor<>(a.first, prev, STABLE, a.size - 1))) {
+                    break;
+                }
+            } else {
+                stabilize(a);
+            }
+        }
+        return unlink(a.last, prev, NEXT);
+    }
+
+    /*
+     * Takes the item out of REMOVED, which this thread now owns, and cuts the
+     * link from its old neighbour NEIGHBOUR back to it. Otherwise the removed
+     * nodes would stay reachable from the live end, one per removal, until
+     * the next add at that end overwrote the link. The CAS leaves alone a
+     * link that a stabilize has already repointed.
+     */
+    private T unlink(Node<T> removed, Node<T> neighbour, VarHandle link) {
+        T item = removed.item;
+        removed.item = null;
+        if (neighbour != null) {
+            link.compareAndSet(neighbour, removed, null);
+        }
+        return item;
+    }
+
+    @Override
+    public T get(int index) {
+        if (index < 0) {
+            return null;
+        }
+        for (T item : this) {
+            if (index == 0) {
+                return item;
+            }
+            index -= 1;
+        }
+        return null;
+    }
+
+    /**
+     * Returns a weakly consistent iterator, which walks from the first node
+     * of a stable anchor towards its last node and skips nodes that were
+     * removed along the way. It does not support remove(), since only the
+     * ends of the list can be unlinked.
+     */
+    @Override
+    public Iterator<T> iterator() {
+        return new LinkedIterator();
+    }
+
+    private class LinkedIterator implements Iterator<T> {
+        private Node<T> node;
+        private final Node<T> last;
+        private T nextItem;
+
+        LinkedIterator() {
+            Anchor<T> a = anchor;
+            while (a.status != STABLE) {
+                stabilize(a);
+                a = anchor;
+            }
+            node = a.first;
+            last = a.last;
+            advance();
+        }
+
+        /* Moves to the first node from NODE on that still holds an item. */
+        private void advance() {
+            nextItem = null;
+            while (node != null) {
+                Node<T> current = node;
+                T item = current.item;
+                node = current == last ? null : current.next;
+                if (item != null) {
+                    nextItem = item;
+                    return;
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return nextItem != null;
+        }
+
+        @Override
+        public T next() {
+            if (nextItem == null) {
+                throw new NoSuchElementException();
+            }
+            T item = nextItem;
+            advance();
+            return item;
+        }
+    }
+}
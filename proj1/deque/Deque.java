@@ -1,6 +1,14 @@
 package deque;
 
-public interface Deque<T> {
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collection;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+public interface Deque<T> extends Iterable<T> {
     void addFirst(T item);
 
     void addLast(T item);
@@ -11,7 +19,26 @@ public interface Deque<T> {
 
     int size();
 
-    void printDeque();
+    default void printDeque() {
+        printDeque(System.out);
+    }
+
+    /**
+     * Writes the items, separated by spaces, followed by a newline to OUT.
+     * The whole line is built first and handed to OUT in one append.
+     */
+    default void printDeque(Appendable out) {
+        StringBuilder sb = new StringBuilder();
+        for (T item : this) {
+            sb.append(item).append(' ');
+        }
+        sb.append(System.lineSeparator());
+        try {
+            out.append(sb);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 
     T removeFirst();
 
@@ -19,4 +46,47 @@ public interface Deque<T> {
 
     T get(int index);
 
+    /** Adds every item of ITEMS to the back, in order. */
+    default void addAllLast(T[] items) {
+        for (T item : items) {
+            addLast(item);
+        }
+    }
+
+    /** Adds every item of ITEMS to the back, in iteration order. */
+    default void addAllLast(Collection<? extends T> items) {
+        for (T item : items) {
+            addLast(item);
+        }
+    }
+
+    /**
+     * Removes up to N items from the front into DST, starting at DST[0].
+     * Stops early if the deque runs out or DST is full. Returns the number
+     * of items removed. Throws IllegalArgumentException if N is negative.
+     */
+    default int removeFirst(int n, T[] dst) {
+        if (n < 0) {
+            throw new IllegalArgumentException("n must not be negative: " + n);
+        }
+        int count = Math.min(n, Math.min(size(), dst.length));
+        for (int i = 0; i < count; i++) {
+            dst[i] = removeFirst();
+        }
+        return count;
+    }
+
+    @Override
+    default Spliterator<T> spliterator() {
+        return Spliterators.spliterator(iterator(), size(), Spliterator.ORDERED);
+    }
+
+    default Stream<T> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    default Stream<T> parallelStream() {
+        return StreamSupport.stream(spliterator(), true);
+    }
+
 }
@@ -0,0 +1,137 @@
+package deque;
+
+import java.util.NoSuchElementException;
+
+/**
+ * An array-backed deque of primitive doubles, for hot loops that would
+ * otherwise box a Double on every add. The capacity of the backing array is
+ * always a power of two, so wrapping an index around is a single mask.
+ *
+ * It grows and shrinks with its contents like ArrayDeque. A fixed-length
+ * delay line that rewrites its slots in place, such as GuitarString's ring,
+ * is better served by a plain double[].
+ */
+public class DoubleArrayDeque implements DoubleDeque {
+    private static final int MIN_CAPACITY = 8;
+
+    private double[] items;
+    private int size;
+    private int nextFirst;
+    private int nextLast;
+
+    public DoubleArrayDeque() {
+        this(MIN_CAPACITY);
+    }
+
+    /** Creates an empty deque that can hold CAPACITY items without resizing. */
+    public DoubleArrayDeque(int capacity) {
+        int length = MIN_CAPACITY;
+        while (length < capacity) {
+            length *= 2;
+        }
+        items = new double[length];
+        size = 0;
+        nextFirst = length - 1;
+        nextLast = 0;
+    }
+
+    /** Copies the items in order into a new array of the given capacity. */
+    private void resize(int capacity) {
+        double[] a = new double[capacity];
+        int first = (nextFirst + 1) & (items.length - 1);
+        int firstPart = Math.min(size, items.length - first);
+        System.arraycopy(items, first, a, 0, firstPart);
+        System.arraycopy(items, 0, a, firstPart, size - firstPart);
+        items = a;
+        nextFirst = capacity - 1;
+        nextLast = size;
+    }
+
+    @Override
+    public void addFirst(double item) {
+        if (size == items.length) {
+            resize(size * 2);
+        }
+        items[nextFirst] = item;
+        nextFirst = (nextFirst - 1) & (items.length - 1);
+        size += 1;
+    }
+
+    @Override
+    public void addLast(double item) {
+        if (size == items.length) {
+            resize(size * 2);
+        }
+        items[nextLast] = item;
+        nextLast = (nextLast + 1) & (items.length - 1);
+        size += 1;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void printDeque() {
+        for (int i = 0; i < size; i++) {
+            System.out.print(get(i) + " ");
+        }
+        System.out.println();
+    }
+
+    @Override
+    public double removeFirst() {
+        if (size == 0) {
+            throw new NoSuchElementException("removeFirst() on an empty deque");
+        }
+        nextFirst = (nextFirst + 1) & (items.length - 1);
+        double item = items[nextFirst];
+        size -= 1;
+        shrinkIfSparse();
+        return item;
+    }
+
+    @Override
+    public double removeLast() {
+        if (size == 0) {
+            throw new NoSuchElementException("removeLast() on an empty deque");
+        }
+        nextLast = (nextLast - 1) & (items.length - 1);
+        double item = items[nextLast];
+        size -= 1;
+        shrinkIfSparse();
+        return item;
+    }
+
+    /** Halves the backing array once it is at most a quarter full. */
+    private void shrinkIfSparse() {
+        if (items.length >= 2 * MIN_CAPACITY && size <= items.length / 4) {
+            resize(items.length / 2);
+        }
+    }
+
+    @Override
+    public double peekFirst() {
+        if (size == 0) {
+            throw new NoSuchElementException("peekFirst() on an empty deque");
+        }
+        return items[(nextFirst + 1) & (items.length - 1)];
+    }
+
+    @Override
+    public double peekLast() {
+        if (size == 0) {
+            throw new NoSuchElementException("peekLast() on an empty deque");
+        }
+        return items[(nextLast - 1) & (items.length - 1)];
+    }
+
+    @Override
+    public double get(int index) {
+        if (index > size - 1 || index < 0) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        return items[(nextFirst + 1 + index) & (items.length - 1)];
+    }
+}
@@ -0,0 +1,79 @@
+package deque;
+
+import org.junit.Test;
+
+import java.util.NoSuchElementException;
+
+import static org.junit.Assert.*;
+
+public class DoubleArrayDequeTest {
+    @Test
+    public void isEmptySizeTest() {
+        DoubleArrayDeque d = new DoubleArrayDeque();
+        assertTrue("A new DoubleArrayDeque should be empty", d.isEmpty());
+        d.addFirst(1.5);
+        assertEquals(1, d.size());
+        assertFalse("now the deque is not empty", d.isEmpty());
+    }
+
+    @Test
+    public void addRemoveBothEndsTest() {
+        DoubleArrayDeque d = new DoubleArrayDeque();
+        d.addLast(2.0);
+        d.addFirst(1.0);
+        d.addLast(3.0);
+        assertEquals(1.0, d.peekFirst(), 0.0);
+        assertEquals(3.0, d.peekLast(), 0.0);
+        assertEquals(2.0, d.get(1), 0.0);
+        assertEquals(1.0, d.removeFirst(), 0.0);
+        assertEquals(3.0, d.removeLast(), 0.0);
+        assertEquals(2.0, d.removeFirst(), 0.0);
+        assertTrue(d.isEmpty());
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void removeEmptyTest() {
+        DoubleArrayDeque d = new DoubleArrayDeque();
+        d.addFirst(3);
+        d.removeLast();
+        d.removeFirst();
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void getOutOfBoundsTest() {
+        DoubleArrayDeque d = new DoubleArrayDeque(16);
+        d.addLast(1.0);
+        d.get(1);
+    }
+
+    /* Sliding window of a fixed size, like the GuitarString ring buffer. */
+    @Test
+    public void fixedSizeRingTest() {
+        DoubleArrayDeque d = new DoubleArrayDeque(100);
+        for (int i = 0; i < 100; i++) {
+            d.addLast(i);
+        }
+        for (int i = 100; i < 1000; i++) {
+            assertEquals(i - 100, d.removeFirst(), 0.0);
+            d.addLast(i);
+            assertEquals(100, d.size());
+            assertEquals(i - 99, d.get(0), 0.0);
+            assertEquals(i, d.get(99), 0.0);
+        }
+    }
+
+    @Test
+    public void bigDequeTest() {
+        DoubleArrayDeque d = new DoubleArrayDeque();
+        for (int i = 0; i < 1000000; i++) {
+            d.addLast(i);
+        }
+        for (double i = 0; i < 500000; i++) {
+            assertEquals("Should have the same value", i, d.removeFirst(), 0.0);
+        }
+        for (double i = 999999; i > 500000; i--) {
+            assertEquals("Should have the same value", i, d.removeLast(), 0.0);
+        }
+        assertEquals(1, d.size());
+    }
+}
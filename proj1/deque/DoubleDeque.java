@@ -0,0 +1,32 @@
+package deque;
+
+/**
+ * A deque of primitive doubles. Mirrors Deque, but never boxes its items.
+ * Since there is no null double, removing from an empty DoubleDeque throws
+ * a NoSuchElementException and get() with a bad index throws an
+ * IndexOutOfBoundsException.
+ */
+public interface DoubleDeque {
+    void addFirst(double item);
+
+    void addLast(double item);
+
+    default boolean isEmpty()  {
+        return size() == 0;
+    }
+
+    int size();
+
+    void printDeque();
+
+    double removeFirst();
+
+    double removeLast();
+
+    double peekFirst();
+
+    double peekLast();
+
+    double get(int index);
+
+}
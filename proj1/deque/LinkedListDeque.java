@@ -1,6 +1,11 @@
 package deque;
 
+import java.util.ConcurrentModificationException;
 import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
 
 public class LinkedListDeque<T> implements Deque<T>, Iterable<T> {
     private class Node {
@@ -19,6 +24,13 @@ public class LinkedListDeque<T> implements Deque<T>, Iterable<T> {
 
     private Node sentinel;
     private int size;
+    /* Number of structural modifications, so that iterators can fail fast. */
+    int modCount;
+    /* The node last reached by get() and its index, or null if unknown.
+     * Lets in-order and nearby lookups start walking from where the last
+     * one stopped. */
+    private Node finger;
+    private int fingerIndex;
     /** Creates an empty timingtest.SLList. */
     public LinkedListDeque() {
         sentinel = new Node(null, null, null);
@@ -34,6 +46,8 @@ public class LinkedListDeque<T> implements Deque<T>, Iterable<T> {
         sentinel.next.prev = newNode;
         sentinel.next = newNode;
         size += 1;
+        modCount += 1;
+        fingerIndex += 1;
     }
 
 
@@ -44,6 +58,7 @@ public class LinkedListDeque<T> implements Deque<T>, Iterable<T> {
         sentinel.prev.next = newNode;
         sentinel.prev = newNode;
         size += 1;
+        modCount += 1;
     }
 
 
@@ -53,25 +68,20 @@ public class LinkedListDeque<T> implements Deque<T>, Iterable<T> {
         return size;
     }
 
-    @Override
-    public void printDeque() {
-        Node p = sentinel;
-        while(p.next != sentinel) {
-            p = p.next;
-            System.out.print(p.item + " ");
-        }
-        System.out.println();
-    }
-
     @Override
     public T removeFirst() {
         if(size == 0) {
             return null;
         }
         T firstItem = sentinel.next.item;
+        if (finger == sentinel.next) {
+            finger = null;
+        }
+        fingerIndex -= 1;
         sentinel.next = sentinel.next.next;
         sentinel.next.prev = sentinel;
         size -= 1;
+        modCount += 1;
         return firstItem;
     }
 
@@ -81,9 +91,13 @@ public class LinkedListDeque<T> implements Deque<T>, Iterable<T> {
             return null;
         }
         T lastItem = sentinel.prev.item;
+        if (finger == sentinel.prev) {
+            finger = null;
+        }
         sentinel.prev = sentinel.prev.prev;
         sentinel.prev.next = sentinel;
         size -= 1;
+        modCount += 1;
 
         return lastItem;
     }
@@ -94,34 +108,107 @@ public class LinkedListDeque<T> implements Deque<T>, Iterable<T> {
             return null;
         }
 
-        Node p = sentinel.next;
-        while(index > 0) {
+        /* Walk from whichever of the head, the tail or the finger is closest. */
+        Node p;
+        int from;
+        if (index <= size - 1 - index) {
+            p = sentinel.next;
+            from = 0;
+        } else {
+            p = sentinel.prev;
+            from = size - 1;
+        }
+        if (finger != null && Math.abs(index - fingerIndex) < Math.abs(index - from)) {
+            p = finger;
+            from = fingerIndex;
+        }
+        while (from < index) {
             p = p.next;
-            index -= 1;
+            from += 1;
         }
+        while (from > index) {
+            p = p.prev;
+            from -= 1;
+        }
+        finger = p;
+        fingerIndex = index;
         return p.item;
     }
 
+    /** Unlinks node P from the list. */
+    private void unlink(Node p) {
+        finger = null;
+        p.prev.next = p.next;
+        p.next.prev = p.prev;
+        size -= 1;
+        modCount += 1;
+    }
+
     @Override
     public Iterator<T> iterator() {
         return new LinkedListDequeIterator();
     }
 
-    private class LinkedListDequeIterator implements Iterator {
-        private int wizPos;
+    @Override
+    public void forEach(Consumer<? super T> action) {
+        int expectedModCount = modCount;
+        /* Checked before every item: a node that ACTION unlinked still points
+         * into the list, so the walk would go on through removed nodes. */
+        for (Node p = sentinel.next; p != sentinel; p = p.next) {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            action.accept(p.item);
+        }
+        if (modCount != expectedModCount) {
+            throw new ConcurrentModificationException();
+        }
+    }
+
+    @Override
+    public Spliterator<T> spliterator() {
+        return Spliterators.spliterator(iterator(), size, Spliterator.ORDERED);
+    }
+
+    /** Keeps a pointer to the next node, so a full pass is linear. */
+    private class LinkedListDequeIterator implements Iterator<T> {
+        private Node next;
+        private Node lastReturned;
+        private int expectedModCount;
         public LinkedListDequeIterator() {
-            wizPos = 0;
+            next = sentinel.next;
+            lastReturned = null;
+            expectedModCount = modCount;
         }
         @Override
         public boolean hasNext() {
-            return wizPos < size;
+            return next != sentinel;
+        }
+
+        @Override
+        public T next() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (next == sentinel) {
+                throw new NoSuchElementException();
+            }
+            lastReturned = next;
+            next = next.next;
+            return lastReturned.item;
         }
 
         @Override
-        public Object next() {
-            T returnItem = get(wizPos);
-            wizPos++;
-            return returnItem;
+        public void remove() {
+            if (lastReturned == null) {
+                throw new IllegalStateException();
+            }
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            unlink(lastReturned);
+            lastReturned = null;
+            expectedModCount = modCount;
         }
     }
 
@@ -116,4 +116,113 @@ public class LinkedListDequeTest {
             assertEquals("Should have the same value", i, (double) lld1.removeLast(), 0.0);
         }
     }
+
+    @Test
+    /* Iterates over a deque, removing the even items along the way. */
+    public void iteratorRemoveTest() {
+        LinkedListDeque<Integer> d = new LinkedListDeque<>();
+        for (int i = 0; i < 100; i++) {
+            d.addLast(i);
+        }
+        java.util.Iterator<Integer> it = d.iterator();
+        int expected = 0;
+        while (it.hasNext()) {
+            int x = it.next();
+            assertEquals(expected, x);
+            expected += 1;
+            if (x % 2 == 0) {
+                it.remove();
+            }
+        }
+        assertEquals(100, expected);
+        assertEquals(50, d.size());
+        int i = 1;
+        for (int x : d) {
+            assertEquals(i, x);
+            i += 2;
+        }
+        assertEquals(2500, d.parallelStream().mapToInt(Integer::intValue).sum());
+    }
+
+    @Test(expected = java.util.ConcurrentModificationException.class)
+    public void iteratorFailFastTest() {
+        LinkedListDeque<Integer> d = new LinkedListDeque<>();
+        d.addLast(1);
+        d.addLast(2);
+        for (int x : d) {
+            d.addFirst(x);
+        }
+    }
+
+    /* An action that removes items must stop forEach before the next one,
+     * not after it has visited every node it removed. */
+    @Test
+    public void forEachFailFastTest() {
+        LinkedListDeque<Integer> d = new LinkedListDeque<>();
+        for (int i = 0; i < 200; i++) {
+            d.addLast(i);
+        }
+        int[] seen = new int[1];
+        try {
+            d.forEach(x -> {
+                seen[0] += 1;
+                d.removeFirst();
+            });
+            fail("forEach should notice the removal");
+        } catch (java.util.ConcurrentModificationException e) {
+            assertEquals(1, seen[0]);
+        }
+    }
+
+    @Test
+    /* Mixes get() calls with changes at both ends, checked against java.util.ArrayList. */
+    public void randomizedGetTest() {
+        LinkedListDeque<Integer> lld1 = new LinkedListDeque<>();
+        java.util.ArrayList<Integer> expected = new java.util.ArrayList<>();
+        java.util.Random r = new java.util.Random(61);
+        for (int i = 0; i < 20000; i++) {
+            int op = r.nextInt(6);
+            if (op == 0) {
+                lld1.addFirst(i);
+                expected.add(0, i);
+            } else if (op == 1) {
+                lld1.addLast(i);
+                expected.add(i);
+            } else if (op == 2 && !expected.isEmpty()) {
+                assertEquals(expected.remove(0), lld1.removeFirst());
+            } else if (op == 3 && !expected.isEmpty()) {
+                assertEquals(expected.remove(expected.size() - 1), lld1.removeLast());
+            } else if (!expected.isEmpty()) {
+                int index = r.nextInt(expected.size());
+                assertEquals(expected.get(index), lld1.get(index));
+                if (index + 1 < expected.size()) {
+                    assertEquals(expected.get(index + 1), lld1.get(index + 1));
+                }
+            }
+        }
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i), lld1.get(i));
+        }
+    }
+
+    @Test
+    public void bulkOpsTest() {
+        LinkedListDeque<String> lld = new LinkedListDeque<>();
+        lld.addAllLast(new String[]{"a", "b", "c"});
+        StringBuilder sb = new StringBuilder();
+        lld.printDeque(sb);
+        assertEquals("a b c " + System.lineSeparator(), sb.toString());
+
+        String[] dst = new String[2];
+        assertEquals(2, lld.removeFirst(5, dst));
+        assertEquals("b", dst[1]);
+        assertEquals(1, lld.size());
+        assertEquals("c", lld.stream().findFirst().get());
+        try {
+            lld.removeFirst(-1, dst);
+            fail("negative n should be rejected");
+        } catch (IllegalArgumentException e) {
+            assertEquals(1, lld.size());
+        }
+    }
 }
@@ -1,31 +1,274 @@
 package deque;
 
+import java.util.Arrays;
 import java.util.Comparator;
 
+/**
+ * An ArrayDeque that can return its largest item.
+ *
+ * For the comparator given at construction, its reverse (for min()), and any
+ * comparator registered with track(), the deque keeps a monotonic
+ * "candidates" deque: the positions of the items that no later item beats,
+ * in order, so the front candidate is always the maximum. addLast, addFirst
+ * and removeFirst keep the candidates up to date in O(1) amortized, so a
+ * sliding window (addLast + removeFirst) answers every max() in O(1).
+ * removeLast, and any other change made through the ArrayDeque methods,
+ * leaves the candidates stale, and the next max() rebuilds them in one O(n)
+ * pass.
+ *
+ * Candidates are indices, not items, so maxIndex() is as cheap as max().
+ * Comparators are matched by identity. Any other comparator passed at call
+ * time is answered by a linear scan and costs nothing afterwards. Ties go to
+ * the item nearest the front.
+ */
 public class MaxArrayDeque<T> extends ArrayDeque<T> {
     private Comparator<T> comparator;
+    private Comparator<T> reversed;
+    private MaxArrayDeque<T>.Tracker[] trackers;
+    private int trackerCount;
+    /* The position of get(0). Positions never change while an item is in the
+     * deque, so candidates stay valid as the front moves. */
+    private long origin;
 
     public MaxArrayDeque(Comparator<T> c) {
         super();
         comparator = c;
+        reversed = c.reversed();
+        trackers = (MaxArrayDeque<T>.Tracker[]) new MaxArrayDeque.Tracker[2];
+        trackerCount = 0;
+        track(comparator);
+        track(reversed);
+    }
+
+    /**
+     * Starts keeping candidates for C, so that max(C) and maxIndex(C) take
+     * O(1) amortized time. Pass the same instance to those calls.
+     */
+    public void track(Comparator<T> c) {
+        if (trackerFor(c) != null) {
+            return;
+        }
+        if (trackerCount == trackers.length) {
+            trackers = Arrays.copyOf(trackers, trackerCount * 2);
+        }
+        trackers[trackerCount] = new Tracker(c);
+        trackerCount += 1;
+    }
+
+    /** Stops keeping candidates for C, which must not be the constructor's. */
+    public void untrack(Comparator<T> c) {
+        if (c == comparator) {
+            throw new IllegalArgumentException("cannot untrack the deque's own comparator");
+        }
+        for (int i = 0; i < trackerCount; i++) {
+            if (trackers[i].comparator == c) {
+                trackerCount -= 1;
+                trackers[i] = trackers[trackerCount];
+                trackers[trackerCount] = null;
+                return;
+            }
+        }
+    }
+
+    /** Returns the number of comparators that candidates are kept for. */
+    int trackedCount() {
+        return trackerCount;
     }
 
     public T max() {
         return max(comparator);
     }
 
+    /** Returns the smallest item according to the comparator given at construction. */
+    public T min() {
+        return max(reversed);
+    }
+
     public T max(Comparator<T> c) {
         if(size() == 0)
             return null;
 
+        return get(maxIndex(c));
+    }
+
+    /** Returns the index of the largest item, or -1 if the deque is empty. */
+    public int maxIndex() {
+        return maxIndex(comparator);
+    }
+
+    /**
+     * Returns the index of the largest item according to C, or -1 if the
+     * deque is empty. O(1) amortized if C is tracked, else a linear scan.
+     */
+    public int maxIndex(Comparator<T> c) {
+        if (size() == 0) {
+            return -1;
+        }
+        Tracker t = trackerFor(c);
+        if (t == null) {
+            return linearMaxIndex(c);
+        }
+        if (t.syncedModCount != modCount) {
+            t.rebuild();
+        }
+        return (int) (t.first() - origin);
+    }
+
+    private int linearMaxIndex(Comparator<T> c) {
+        int maxIndex = 0;
         T maxItem = get(0);
         for(int i = 1; i < size(); i++) {
             T currItem = get(i);
-            if(c.compare(maxItem, currItem) < 0)
+            if(c.compare(maxItem, currItem) < 0) {
                 maxItem = currItem;
+                maxIndex = i;
+            }
         }
 
-        return maxItem;
+        return maxIndex;
     }
 
+    /** Returns the tracker for C, or null if C is not tracked. */
+    private Tracker trackerFor(Comparator<T> c) {
+        for (int i = 0; i < trackerCount; i++) {
+            if (trackers[i].comparator == c) {
+                return trackers[i];
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void addFirst(T item) {
+        int before = modCount;
+        super.addFirst(item);
+        origin -= 1;
+        for (int i = 0; i < trackerCount; i++) {
+            trackers[i].addedFirst(item, before);
+        }
+    }
+
+    @Override
+    public void addLast(T item) {
+        int before = modCount;
+        super.addLast(item);
+        for (int i = 0; i < trackerCount; i++) {
+            trackers[i].addedLast(item, before);
+        }
+    }
+
+    @Override
+    public T removeFirst() {
+        int before = modCount;
+        T item = super.removeFirst();
+        if (modCount != before) {
+            for (int i = 0; i < trackerCount; i++) {
+                trackers[i].removedFirst(before);
+            }
+            origin += 1;
+        }
+        return item;
+    }
+
+    /* removeLast() is inherited: the items the removed one had been hiding
+     * are gone from the candidates, so the trackers go stale. */
+
+    /**
+     * The candidate positions for one comparator, in a power-of-two ring.
+     * They are valid only while syncedModCount matches the deque's modCount.
+     */
+    private class Tracker {
+        private final Comparator<T> comparator;
+        private long[] positions;
+        private int head;
+        private int count;
+        private int syncedModCount;
+
+        Tracker(Comparator<T> c) {
+            comparator = c;
+            positions = new long[8];
+            syncedModCount = modCount - 1;
+        }
+
+        long first() {
+            return positions[head];
+        }
+
+        private long last() {
+            return positions[(head + count - 1) & (positions.length - 1)];
+        }
+
+        private T itemAt(long position) {
+            return get((int) (position - origin));
+        }
+
+        private void grow() {
+            long[] bigger = new long[positions.length * 2];
+            for (int i = 0; i < count; i++) {
+                bigger[i] = positions[(head + i) & (positions.length - 1)];
+            }
+            positions = bigger;
+            head = 0;
+        }
+
+        /** Recomputes the candidates from scratch. */
+        void rebuild() {
+            count = 0;
+            head = 0;
+            int n = size();
+            for (int i = 0; i < n; i++) {
+                push(origin + i, get(i));
+            }
+            syncedModCount = modCount;
+        }
+
+        /** Adds POSITION, holding ITEM, as the last candidate, dropping every candidate it beats. */
+        private void push(long position, T item) {
+            while (count > 0 && comparator.compare(itemAt(last()), item) < 0) {
+                count -= 1;
+            }
+            if (count == positions.length) {
+                grow();
+            }
+            positions[(head + count) & (positions.length - 1)] = position;
+            count += 1;
+        }
+
+        void addedLast(T item, int before) {
+            if (syncedModCount != before) {
+                return;
+            }
+            push(origin + size() - 1, item);
+            syncedModCount = modCount;
+        }
+
+        /* A new first item is a candidate only if nothing after it beats it. */
+        void addedFirst(T item, int before) {
+            if (syncedModCount != before) {
+                return;
+            }
+            if (count == 0 || comparator.compare(item, itemAt(first())) >= 0) {
+                if (count == positions.length) {
+                    grow();
+                }
+                head = (head - 1) & (positions.length - 1);
+                positions[head] = origin;
+                count += 1;
+            }
+            syncedModCount = modCount;
+        }
+
+        /* The removed first item, at position origin, was a candidate only
+         * if it was the first one. Called before origin moves past it. */
+        void removedFirst(int before) {
+            if (syncedModCount != before) {
+                return;
+            }
+            if (first() == origin) {
+                head = (head + 1) & (positions.length - 1);
+                count -= 1;
+            }
+            syncedModCount = modCount;
+        }
+    }
 }
@@ -0,0 +1,136 @@
+package deque;
+
+import org.junit.Test;
+
+import java.util.Comparator;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class MaxArrayDequeTest {
+    private static final Comparator<Integer> NATURAL = Comparator.naturalOrder();
+
+    @Test
+    public void emptyTest() {
+        MaxArrayDeque<Integer> d = new MaxArrayDeque<>(NATURAL);
+        assertNull(d.max());
+        assertNull(d.min());
+    }
+
+    @Test
+    public void maxMinTest() {
+        MaxArrayDeque<String> d = new MaxArrayDeque<>(Comparator.<String>naturalOrder());
+        d.addLast("pear");
+        d.addLast("apple");
+        d.addFirst("zebra");
+        d.addLast("mango");
+        assertEquals("zebra", d.max());
+        assertEquals("apple", d.min());
+        assertEquals("pear", d.max(Comparator.comparing(String::length).reversed()));
+        d.removeFirst();
+        assertEquals("pear", d.max());
+        d.removeLast();
+        assertEquals("pear", d.max());
+        assertEquals("apple", d.min());
+    }
+
+    /* Ties go to the item nearest the front, as with a linear scan. */
+    @Test
+    public void tieTest() {
+        Comparator<String> byLength = Comparator.comparing(String::length);
+        MaxArrayDeque<String> d = new MaxArrayDeque<>(byLength);
+        d.addLast("aa");
+        d.addLast("bb");
+        d.addFirst("cc");
+        assertEquals("cc", d.max());
+        d.removeFirst();
+        assertEquals("aa", d.max());
+        d.removeFirst();
+        assertEquals("bb", d.max());
+    }
+
+    /* Random operations, checked against a linear scan, with several comparators. */
+    @Test
+    public void randomizedTest() {
+        Comparator<Integer> byLastDigit = Comparator.comparing(x -> Math.floorMod(x, 10));
+        Comparator<Integer> byTens = Comparator.comparing(x -> x / 10);
+        MaxArrayDeque<Integer> d = new MaxArrayDeque<>(NATURAL);
+        d.track(byLastDigit);
+        java.util.ArrayDeque<Integer> expected = new java.util.ArrayDeque<>();
+        Random r = new Random(61);
+        for (int i = 0; i < 20000; i++) {
+            int op = r.nextInt(10);
+            int x = r.nextInt(1000);
+            if (op < 4) {
+                d.addLast(x);
+                expected.addLast(x);
+            } else if (op < 5) {
+                d.addFirst(x);
+                expected.addFirst(x);
+            } else if (op < 8) {
+                assertEquals(expected.pollFirst(), d.removeFirst());
+            } else if (op < 9) {
+                assertEquals(expected.pollLast(), d.removeLast());
+            }
+            assertEquals(linearMax(expected, NATURAL), d.max());
+            assertEquals(linearMax(expected, NATURAL.reversed()), d.min());
+            assertEquals(linearMax(expected, byLastDigit), d.max(byLastDigit));
+            /* Untracked, so answered by a linear scan. */
+            assertEquals(linearMax(expected, byTens), d.max(byTens));
+            if (!expected.isEmpty()) {
+                assertEquals(linearMax(expected, NATURAL), d.get(d.maxIndex()));
+            }
+        }
+    }
+
+    @Test
+    public void maxIndexTest() {
+        MaxArrayDeque<Integer> d = new MaxArrayDeque<>(NATURAL);
+        assertEquals(-1, d.maxIndex());
+        int[] window = {3, 1, 4, 1, 5, 9, 2, 6};
+        for (int x : window) {
+            d.addLast(x);
+        }
+        assertEquals(5, d.maxIndex());
+        d.removeFirst();
+        d.removeFirst();
+        assertEquals(3, d.maxIndex());
+        d.addFirst(9);
+        assertEquals(0, d.maxIndex());
+        assertEquals(2, d.maxIndex(NATURAL.reversed()));
+    }
+
+    /* Comparators passed only at call time must not be tracked. */
+    @Test
+    public void throwawayComparatorsAreNotTrackedTest() {
+        MaxArrayDeque<Integer> d = new MaxArrayDeque<>(NATURAL);
+        for (int i = 0; i < 10; i++) {
+            d.addLast(i);
+        }
+        int tracked = d.trackedCount();
+        for (int i = 0; i < 10; i++) {
+            int k = i;
+            assertEquals(9, (int) d.max((a, b) -> Integer.compare(a + k, b + k)));
+        }
+        assertEquals(tracked, d.trackedCount());
+
+        Comparator<Integer> odd = Comparator.comparing(x -> x % 2);
+        d.track(odd);
+        d.track(odd);
+        assertEquals(tracked + 1, d.trackedCount());
+        assertEquals(1, (int) d.max(odd));
+        d.untrack(odd);
+        assertEquals(tracked, d.trackedCount());
+        assertEquals(1, (int) d.max(odd));
+    }
+
+    private static Integer linearMax(Iterable<Integer> items, Comparator<Integer> c) {
+        Integer max = null;
+        for (Integer x : items) {
+            if (max == null || c.compare(max, x) < 0) {
+                max = x;
+            }
+        }
+        return max;
+    }
+}
@@ -0,0 +1,54 @@
+package deque;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Reads and writes fixed-width records at absolute offsets in a ByteBuffer,
+ * so that a ByteBufferDeque can store items as raw bytes instead of objects.
+ * Implementations must only touch the WIDTH bytes starting at OFFSET, and
+ * must not move the buffer's position or limit.
+ */
+public interface RecordCodec<T> {
+    /** Number of bytes in one record. */
+    int width();
+
+    void write(ByteBuffer buf, int offset, T item);
+
+    T read(ByteBuffer buf, int offset);
+
+    /** A record holding one long. */
+    RecordCodec<Long> LONG = new RecordCodec<Long>() {
+        @Override
+        public int width() {
+            return Long.BYTES;
+        }
+
+        @Override
+        public void write(ByteBuffer buf, int offset, Long item) {
+            buf.putLong(offset, item);
+        }
+
+        @Override
+        public Long read(ByteBuffer buf, int offset) {
+            return buf.getLong(offset);
+        }
+    };
+
+    /** A record holding one double. */
+    RecordCodec<Double> DOUBLE = new RecordCodec<Double>() {
+        @Override
+        public int width() {
+            return Double.BYTES;
+        }
+
+        @Override
+        public void write(ByteBuffer buf, int offset, Double item) {
+            buf.putDouble(offset, item);
+        }
+
+        @Override
+        public Double read(ByteBuffer buf, int offset) {
+            return buf.getDouble(offset);
+        }
+    };
+}
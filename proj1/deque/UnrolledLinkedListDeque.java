@@ -0,0 +1,259 @@
+package deque;
+
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * A doubly-linked list of fixed-size blocks, each holding up to BLOCK_LEN
+ * items, in the style of CPython's collections.deque. A LinkedListDeque
+ * pays a 24-byte Node (header plus three references) for every item; here an
+ * item costs one array slot, and a block's two links are shared by BLOCK_LEN
+ * items. Iteration walks arrays instead of chasing a pointer per item.
+ *
+ * Items occupy leftBlock[leftIndex] through rightBlock[rightIndex]. Every
+ * block between the two ends is full. Adding at an end that has run out of
+ * room links a new block there; removing the last item of an end block
+ * unlinks it. An empty deque keeps one block with its ends in the middle, so
+ * that it can grow in either direction without allocating.
+ *
+ * get(index) skips whole blocks from the closer end, so it costs
+ * O(min(index, size - index) / BLOCK_LEN).
+ */
+public class UnrolledLinkedListDeque<T> implements Deque<T>, Iterable<T> {
+    static final int BLOCK_LEN = 64;
+    private static final int CENTER = (BLOCK_LEN - 1) / 2;
+
+    private class Block {
+        final T[] items;
+        Block prev;
+        Block next;
+
+        Block() {
+            items = (T[]) new Object[BLOCK_LEN];
+        }
+    }
+
+    private Block leftBlock;
+    private Block rightBlock;
+    /* Slot of the first item in leftBlock. */
+    private int leftIndex;
+    /* Slot of the last item in rightBlock. */
+    private int rightIndex;
+    private int size;
+    /* Number of structural modifications, so that iterators can fail fast. */
+    int modCount;
+
+    public UnrolledLinkedListDeque() {
+        leftBlock = new Block();
+        rightBlock = leftBlock;
+        recenter();
+        size = 0;
+    }
+
+    /* Puts the ends of an empty deque in the middle of its only block. */
+    private void recenter() {
+        leftIndex = CENTER + 1;
+        rightIndex = CENTER;
+    }
+
+    @Override
+    public void addFirst(T item) {
+        if (leftIndex == 0) {
+            Block b = new Block();
+            b.next = leftBlock;
+            leftBlock.prev = b;
+            leftBlock = b;
+            leftIndex = BLOCK_LEN;
+        }
+        leftIndex -= 1;
+        leftBlock.items[leftIndex] = item;
+        size += 1;
+        modCount += 1;
+    }
+
+    @Override
+    public void addLast(T item) {
+        if (rightIndex == BLOCK_LEN - 1) {
+            Block b = new Block();
+            b.prev = rightBlock;
+            rightBlock.next = b;
+            rightBlock = b;
+            rightIndex = -1;
+        }
+        rightIndex += 1;
+        rightBlock.items[rightIndex] = item;
+        size += 1;
+        modCount += 1;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public T removeFirst() {
+        if (size == 0) {
+            return null;
+        }
+        T item = leftBlock.items[leftIndex];
+        leftBlock.items[leftIndex] = null;
+        leftIndex += 1;
+        size -= 1;
+        modCount += 1;
+        if (size == 0) {
+            recenter();
+        } else if (leftIndex == BLOCK_LEN) {
+            leftBlock = leftBlock.next;
+            leftBlock.prev = null;
+            leftIndex = 0;
+        }
+        return item;
+    }
+
+    @Override
+    public T removeLast() {
+        if (size == 0) {
+            return null;
+        }
+        T item = rightBlock.items[rightIndex];
+        rightBlock.items[rightIndex] = null;
+        rightIndex -= 1;
+        size -= 1;
+        modCount += 1;
+        if (size == 0) {
+            recenter();
+        } else if (rightIndex == -1) {
+            rightBlock = rightBlock.prev;
+            rightBlock.next = null;
+            rightIndex = BLOCK_LEN - 1;
+        }
+        return item;
+    }
+
+    @Override
+    public T get(int index) {
+        if (index > size - 1 || index < 0) {
+            return null;
+        }
+        if (index <= size - 1 - index) {
+            /* Offset of the item from slot 0 of leftBlock. */
+            int offset = leftIndex + index;
+            Block b = leftBlock;
+            for (int n = offset / BLOCK_LEN; n > 0; n--) {
+                b = b.next;
+            }
+            return b.items[offset % BLOCK_LEN];
+        }
+        /* Offset of the item back from the last slot of rightBlock. */
+        int offset = (BLOCK_LEN - 1 - rightIndex) + (size - 1 - index);
+        Block b = rightBlock;
+        for (int n = offset / BLOCK_LEN; n > 0; n--) {
+            b = b.prev;
+        }
+        return b.items[BLOCK_LEN - 1 - offset % BLOCK_LEN];
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return new UnrolledIterator();
+    }
+
+    @Override
+    public void forEach(Consumer<? super T> action) {
+        int expectedModCount = modCount;
+        int remaining = size;
+        int i = leftIndex;
+        /* Checked before every item: once ACTION unlinks a block, b.next
+         * may be null before remaining reaches 0. */
+        for (Block b = leftBlock; remaining > 0; b = b.next) {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            int end = Math.min(BLOCK_LEN, i + remaining);
+            T[] items = b.items;
+            remaining -= end - i;
+            for (; i < end; i++) {
+                if (modCount != expectedModCount) {
+                    throw new ConcurrentModificationException();
+                }
+                action.accept(items[i]);
+            }
+            i = 0;
+        }
+        if (modCount != expectedModCount) {
+            throw new ConcurrentModificationException();
+        }
+    }
+
+    /** Walks the current block's array, stepping to the next block at its end. */
+    private class UnrolledIterator implements Iterator<T> {
+        private Block block;
+        private int wizPos;
+        private int remaining;
+        private final int expectedModCount;
+
+        UnrolledIterator() {
+            block = leftBlock;
+            wizPos = leftIndex;
+            remaining = size;
+            expectedModCount = modCount;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return remaining > 0;
+        }
+
+        @Override
+        public T next() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (remaining == 0) {
+                throw new NoSuchElementException();
+            }
+            if (wizPos == BLOCK_LEN) {
+                block = block.next;
+                wizPos = 0;
+            }
+            T item = block.items[wizPos];
+            wizPos += 1;
+            remaining -= 1;
+            return item;
+        }
+    }
+
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Deque)) {
+            return false;
+        }
+        Deque<T> other = (Deque<T>) o;
+        if (size() != other.size()) {
+            return false;
+        }
+        Iterator<T> it = other.iterator();
+        for (T item : this) {
+            if (!Objects.equals(item, it.next())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Hashes the items in order, as java.util.List does, to match equals. */
+    @Override
+    public int hashCode() {
+        int h = 1;
+        for (T item : this) {
+            h = 31 * h + Objects.hashCode(item);
+        }
+        return h;
+    }
+}
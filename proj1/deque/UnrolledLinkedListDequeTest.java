@@ -0,0 +1,152 @@
+package deque;
+
+import org.junit.Test;
+
+import java.util.Iterator;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class UnrolledLinkedListDequeTest {
+    @Test
+    public void addRemoveTest() {
+        UnrolledLinkedListDeque<Integer> d = new UnrolledLinkedListDeque<>();
+        assertTrue(d.isEmpty());
+        assertNull(d.removeFirst());
+        assertNull(d.removeLast());
+        for (int i = 0; i < 1000; i++) {
+            d.addLast(i);
+        }
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i, (int) d.removeFirst());
+        }
+        assertTrue(d.isEmpty());
+        for (int i = 0; i < 1000; i++) {
+            d.addFirst(i);
+        }
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i, (int) d.removeLast());
+        }
+        assertTrue(d.isEmpty());
+    }
+
+    @Test
+    public void getCrossesBlocksTest() {
+        UnrolledLinkedListDeque<Integer> d = new UnrolledLinkedListDeque<>();
+        for (int i = 0; i < 500; i++) {
+            d.addLast(i);
+            d.addFirst(-i - 1);
+        }
+        assertEquals(1000, d.size());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i - 500, (int) d.get(i));
+        }
+        assertNull(d.get(-1));
+        assertNull(d.get(1000));
+    }
+
+    /* Random operations, checked against java.util.ArrayDeque. */
+    @Test
+    public void randomizedTest() {
+        UnrolledLinkedListDeque<Integer> d = new UnrolledLinkedListDeque<>();
+        java.util.ArrayDeque<Integer> expected = new java.util.ArrayDeque<>();
+        Random r = new Random(61);
+        for (int i = 0; i < 200000; i++) {
+            int op = r.nextInt(5);
+            if (op == 0) {
+                d.addFirst(i);
+                expected.addFirst(i);
+            } else if (op == 1) {
+                d.addLast(i);
+                expected.addLast(i);
+            } else if (op == 2) {
+                assertEquals(expected.pollFirst(), d.removeFirst());
+            } else if (op == 3) {
+                assertEquals(expected.pollLast(), d.removeLast());
+            } else if (!expected.isEmpty()) {
+                int index = r.nextInt(expected.size());
+                Iterator<Integer> it = expected.iterator();
+                for (int j = 0; j < index; j++) {
+                    it.next();
+                }
+                assertEquals(it.next(), d.get(index));
+            }
+            assertEquals(expected.size(), d.size());
+        }
+        Iterator<Integer> it = expected.iterator();
+        for (int x : d) {
+            assertEquals(it.next(), (Integer) x);
+        }
+        assertFalse(it.hasNext());
+    }
+
+    @Test
+    public void iterationAndEqualsTest() {
+        UnrolledLinkedListDeque<Integer> d = new UnrolledLinkedListDeque<>();
+        LinkedListDeque<Integer> lld = new LinkedListDeque<>();
+        for (int i = 0; i < 300; i++) {
+            d.addLast(i);
+            lld.addLast(i);
+        }
+        assertEquals(d, lld);
+        int[] sum = new int[1];
+        d.forEach(x -> sum[0] += x);
+        assertEquals(44850, sum[0]);
+        assertEquals(44850, d.stream().mapToInt(Integer::intValue).sum());
+        lld.removeLast();
+        assertNotEquals(d, lld);
+    }
+
+    /* Deques with equal items, however they are split into blocks, hash alike. */
+    @Test
+    public void hashCodeTest() {
+        UnrolledLinkedListDeque<Integer> a = new UnrolledLinkedListDeque<>();
+        UnrolledLinkedListDeque<Integer> b = new UnrolledLinkedListDeque<>();
+        java.util.List<Integer> list = new java.util.ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            a.addLast(i);
+            b.addFirst(99 - i);
+            list.add(i);
+        }
+        assertEquals(a, b);
+        assertEquals(a.hashCode(), b.hashCode());
+        assertEquals(list.hashCode(), a.hashCode());
+        b.removeLast();
+        b.addLast(null);
+        assertNotEquals(a.hashCode(), b.hashCode());
+    }
+
+    @Test(expected = java.util.ConcurrentModificationException.class)
+    public void iteratorFailFastTest() {
+        UnrolledLinkedListDeque<Integer> d = new UnrolledLinkedListDeque<>();
+        d.addLast(1);
+        d.addLast(2);
+        for (int x : d) {
+            d.addLast(x);
+        }
+    }
+
+    /* An action that empties the far blocks must get a CME on the next item,
+     * not a walk onto an unlinked block. */
+    @Test
+    public void forEachFailFastTest() {
+        UnrolledLinkedListDeque<Integer> d = new UnrolledLinkedListDeque<>();
+        for (int i = 0; i < 200; i++) {
+            d.addLast(i);
+        }
+        int[] seen = new int[1];
+        try {
+            d.forEach(x -> {
+                seen[0] += 1;
+                if (seen[0] == 60) {
+                    while (d.size() > 61) {
+                        d.removeLast();
+                    }
+                }
+            });
+            fail("forEach should notice the removals");
+        } catch (java.util.ConcurrentModificationException e) {
+            assertEquals(60, seen[0]);
+        }
+    }
+}
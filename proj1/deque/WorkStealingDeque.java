@@ -0,0 +1,139 @@
+package deque;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * A Chase-Lev work-stealing deque. One owner thread pushes and pops at the
+ * bottom without locking, like a stack, while any number of thief threads
+ * steal from the top, like a queue. Only the last remaining item is ever
+ * contested, and that race is settled with a single compare-and-set on top.
+ *
+ * Items live in a power-of-two ring as in ArrayDeque, indexed by the
+ * ever-increasing top and bottom counters masked down to the array. Only the
+ * owner may call push() and pop(). The ring grows when full but never shrinks.
+ *
+ * Only the owner ever writes the ring, so taken slots are nulled by the owner
+ * too: at once for items it pops, and on its next push for items that were
+ * stolen. A thief can't null the slot it stole from, since by then the owner
+ * may have wrapped around and pushed a new item into it.
+ */
+public class WorkStealingDeque<T> {
+    private static final int MIN_CAPACITY = 32;
+    private static final VarHandle TOP;
+
+    static {
+        try {
+            TOP = MethodHandles.lookup().findVarHandle(WorkStealingDeque.class, "top", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    /* Index of the next item to steal; only ever moves forward, by CAS. */
+    private volatile long top;
+    /* Index of the next free slot; only written by the owner. */
+    private volatile long bottom;
+    private volatile Object[] items;
+    /* Slots of indices below this have been nulled; only used by the owner. */
+    private long cleared;
+
+    public WorkStealingDeque() {
+        items = new Object[MIN_CAPACITY];
+    }
+
+    /** Pushes ITEM onto the bottom. Owner thread only. */
+    public void push(T item) {
+        long b = bottom;
+        long t = top;
+        Object[] a = items;
+        if (b - t >= a.length) {
+            a = grow(a, t, b);
+        }
+        clearStolen(a, t);
+        a[(int) b & (a.length - 1)] = item;
+        /* The volatile write publishes the item to thieves. */
+        bottom = b + 1;
+    }
+
+    /** Copies the live items [t, b) into a ring twice the size. */
+    private Object[] grow(Object[] a, long t, long b) {
+        Object[] bigger = new Object[a.length * 2];
+        for (long i = t; i < b; i++) {
+            bigger[(int) i & (bigger.length - 1)] = a[(int) i & (a.length - 1)];
+        }
+        items = bigger;
+        cleared = t;
+        return bigger;
+    }
+
+    /*
+     * Nulls the slots of the items stolen since the last push, [cleared, t).
+     * None of them can have been reused yet: every push so far went to an
+     * index below cleared + a.length.
+     */
+    private void clearStolen(Object[] a, long t) {
+        for (long i = cleared; i < t; i++) {
+            a[(int) i & (a.length - 1)] = null;
+        }
+        cleared = t;
+    }
+
+    /**
+     * Pops the most recently pushed item from the bottom, or returns null if
+     * the deque is empty. Owner thread only.
+     */
+    public T pop() {
+        long b = bottom - 1;
+        Object[] a = items;
+        /* Reserve the bottom slot before looking at top; volatile write then
+         * volatile read, so a thief can't miss the reservation. */
+        bottom = b;
+        long t = top;
+        if (t > b) {
+            bottom = b + 1;
+            return null;
+        }
+        int slot = (int) b & (a.length - 1);
+        T item = (T) a[slot];
+        if (t == b) {
+            /* Last item: race the thieves for it. */
+            if (!TOP.compareAndSet(this, t, t + 1)) {
+                item = null;
+            }
+            bottom = b + 1;
+        }
+        if (item != null) {
+            a[slot] = null;
+        }
+        return item;
+    }
+
+    /**
+     * Steals the oldest item from the top. Returns null if the deque is empty
+     * or another thread took the item first. Safe to call from any thread.
+     */
+    public T steal() {
+        long t = top;
+        long b = bottom;
+        if (t >= b) {
+            return null;
+        }
+        Object[] a = items;
+        T item = (T) a[(int) t & (a.length - 1)];
+        if (!TOP.compareAndSet(this, t, t + 1)) {
+            return null;
+        }
+        return item;
+    }
+
+    /** Returns the number of items, which may already be stale when read. */
+    public int size() {
+        long n = bottom - top;
+        return (int) Math.max(0, n);
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+}
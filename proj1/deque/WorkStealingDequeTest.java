@@ -0,0 +1,164 @@
+package deque;
+
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+
+public class WorkStealingDequeTest {
+    @Test
+    public void ownerIsLifoThievesAreFifoTest() {
+        WorkStealingDeque<Integer> d = new WorkStealingDeque<>();
+        assertNull(d.pop());
+        assertNull(d.steal());
+        for (int i = 0; i < 100; i++) {
+            d.push(i);
+        }
+        assertEquals(100, d.size());
+        assertEquals(99, (int) d.pop());
+        assertEquals(0, (int) d.steal());
+        assertEquals(98, (int) d.pop());
+        assertEquals(1, (int) d.steal());
+        assertEquals(96, d.size());
+    }
+
+    /* Taken items must not stay reachable from the ring. */
+    @Test
+    public void takenSlotsAreClearedTest() {
+        WorkStealingDeque<Object> d = new WorkStealingDeque<>();
+        java.lang.ref.WeakReference<Object> popped = pushTaken(d, true);
+        java.lang.ref.WeakReference<Object> stolen = pushTaken(d, false);
+        d.push("next");
+        for (int i = 0; i < 10 && (popped.get() != null || stolen.get() != null); i++) {
+            System.gc();
+        }
+        assertNull("popped item still referenced", popped.get());
+        assertNull("stolen item still referenced", stolen.get());
+    }
+
+    private static java.lang.ref.WeakReference<Object> pushTaken(WorkStealingDeque<Object> d, boolean pop) {
+        Object item = new Object();
+        d.push(item);
+        assertSame(item, pop ? d.pop() : d.steal());
+        return new java.lang.ref.WeakReference<>(item);
+    }
+
+    /* The owner pushes and pops while thieves steal; every item is taken exactly once. */
+    @Test
+    public void concurrentStealTest() throws InterruptedException {
+        int total = 200000;
+        int thieves = 3;
+        WorkStealingDeque<Integer> d = new WorkStealingDeque<>();
+        AtomicIntegerArray seen = new AtomicIntegerArray(total);
+        AtomicInteger taken = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+
+        Thread[] threads = new Thread[thieves];
+        for (int i = 0; i < thieves; i++) {
+            threads[i] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                while (taken.get() < total) {
+                    Integer x = d.steal();
+                    if (x != null) {
+                        seen.incrementAndGet(x);
+                        taken.incrementAndGet();
+                    }
+                }
+            });
+            threads[i].start();
+        }
+
+        start.countDown();
+        for (int i = 0; i < total; i++) {
+            d.push(i);
+            if (i % 3 == 0) {
+                Integer x = d.pop();
+                if (x != null) {
+                    seen.incrementAndGet(x);
+                    taken.incrementAndGet();
+                }
+            }
+        }
+        Integer x;
+        while ((x = d.pop()) != null) {
+            seen.incrementAndGet(x);
+            taken.incrementAndGet();
+        }
+        for (Thread t : threads) {
+            t.join(60000);
+            assertFalse("stress test timed out", t.isAlive());
+        }
+
+        assertEquals(total, taken.get());
+        for (int i = 0; i < total; i++) {
+            assertEquals("item " + i + " should be taken exactly once", 1, seen.get(i));
+        }
+    }
+
+    /* Tasks recursively split a range, so most work is spawned from inside workers. */
+    @Test
+    public void executorForkJoinTest() throws InterruptedException {
+        WorkStealingExecutor pool = new WorkStealingExecutor(4);
+        AtomicLong sum = new AtomicLong();
+        int n = 1 << 16;
+        pool.execute(new RangeSum(pool, 0, n, sum));
+        pool.awaitQuiescence();
+        assertEquals((long) n * (n - 1) / 2, sum.get());
+
+        /* The executor can be reused after quiescence. */
+        sum.set(0);
+        for (int i = 0; i < 1000; i++) {
+            long v = i;
+            pool.execute(() -> sum.addAndGet(v));
+        }
+        pool.awaitQuiescence();
+        assertEquals(999L * 1000 / 2, sum.get());
+        pool.shutdown();
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void executorRethrowsTaskFailureTest() throws InterruptedException {
+        WorkStealingExecutor pool = new WorkStealingExecutor(2);
+        pool.execute(() -> {
+            throw new IllegalStateException("boom");
+        });
+        pool.awaitQuiescence();
+    }
+
+    private static class RangeSum implements Runnable {
+        private final WorkStealingExecutor pool;
+        private final int lo;
+        private final int hi;
+        private final AtomicLong sum;
+
+        RangeSum(WorkStealingExecutor pool, int lo, int hi, AtomicLong sum) {
+            this.pool = pool;
+            this.lo = lo;
+            this.hi = hi;
+            this.sum = sum;
+        }
+
+        @Override
+        public void run() {
+            if (hi - lo <= 64) {
+                long s = 0;
+                for (int i = lo; i < hi; i++) {
+                    s += i;
+                }
+                sum.addAndGet(s);
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            pool.execute(new RangeSum(pool, lo, mid, sum));
+            pool.execute(new RangeSum(pool, mid, hi, sum));
+        }
+    }
+}
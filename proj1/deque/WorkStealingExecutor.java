@@ -0,0 +1,204 @@
+package deque;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A fork/join style task executor with one WorkStealingDeque per worker.
+ *
+ * Tasks submitted by a worker thread go onto that worker's own deque, where
+ * the worker pops them newest first. Tasks submitted from outside go onto a
+ * shared ConcurrentLinkedDeque. A worker that runs out of work takes from the
+ * shared deque, then steals the oldest task of a random other worker, so no
+ * single queue is touched by every thread on every task.
+ *
+ * Worker threads are daemons. A task that throws does not kill its worker;
+ * the first such exception is rethrown by the next awaitQuiescence().
+ */
+public class WorkStealingExecutor implements Executor {
+    /* How long an idle worker sleeps before looking for work again. */
+    private static final long IDLE_PARK_NANOS = 100_000;
+
+    private final Worker[] workers;
+    private final ConcurrentLinkedDeque<Runnable> submissions;
+    /* Tasks that have been submitted but have not finished running. */
+    private final AtomicLong pending;
+    private final AtomicReference<Throwable> failure;
+    private final Object quiescence;
+    private volatile boolean running;
+
+    /** Creates an executor with one worker per available processor. */
+    public WorkStealingExecutor() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public WorkStealingExecutor(int parallelism) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("parallelism must be positive: " + parallelism);
+        }
+        workers = new Worker[parallelism];
+        submissions = new ConcurrentLinkedDeque<>();
+        pending = new AtomicLong();
+        failure = new AtomicReference<>();
+        quiescence = new Object();
+        running = true;
+        for (int i = 0; i < parallelism; i++) {
+            workers[i] = new Worker(i);
+        }
+        for (Worker w : workers) {
+            w.start();
+        }
+    }
+
+    /** Returns the number of worker threads. */
+    public int parallelism() {
+        return workers.length;
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        if (task == null) {
+            throw new NullPointerException();
+        }
+        if (!running) {
+            throw new IllegalStateException("executor has been shut down");
+        }
+        pending.incrementAndGet();
+        Worker self = currentWorker();
+        if (self != null) {
+            self.tasks.push(task);
+        } else {
+            submissions.addLast(task);
+        }
+        wakeOne();
+    }
+
+    /**
+     * Blocks until every submitted task, including tasks those tasks
+     * submitted, has finished. A worker thread that calls this runs tasks
+     * while it waits instead of blocking.
+     */
+    public void awaitQuiescence() throws InterruptedException {
+        Worker self = currentWorker();
+        if (self != null) {
+            while (pending.get() > 0) {
+                Runnable task = self.findTask();
+                if (task != null) {
+                    self.runTask(task);
+                } else {
+                    Thread.onSpinWait();
+                }
+            }
+        } else {
+            synchronized (quiescence) {
+                while (pending.get() > 0) {
+                    quiescence.wait();
+                }
+            }
+        }
+        Throwable t = failure.getAndSet(null);
+        if (t != null) {
+            throw new RuntimeException("task failed", t);
+        }
+    }
+
+    /** Stops the workers once the tasks already submitted have run. */
+    public void shutdown() {
+        running = false;
+        for (Worker w : workers) {
+            LockSupport.unpark(w);
+        }
+    }
+
+    /** Returns the worker running on this thread if it belongs to this executor, or null. */
+    private Worker currentWorker() {
+        Thread t = Thread.currentThread();
+        if (t instanceof Worker && ((Worker) t).owner() == this) {
+            return (Worker) t;
+        }
+        return null;
+    }
+
+    private void wakeOne() {
+        for (Worker w : workers) {
+            if (w.idle) {
+                LockSupport.unpark(w);
+                return;
+            }
+        }
+    }
+
+    private class Worker extends Thread {
+        private final WorkStealingDeque<Runnable> tasks;
+        private final int index;
+        private volatile boolean idle;
+
+        Worker(int index) {
+            super("work-stealing-worker-" + index);
+            this.index = index;
+            tasks = new WorkStealingDeque<>();
+            setDaemon(true);
+        }
+
+        WorkStealingExecutor owner() {
+            return WorkStealingExecutor.this;
+        }
+
+        /** Own tasks first, then outside submissions, then other workers' tasks. */
+        Runnable findTask() {
+            Runnable task = tasks.pop();
+            if (task != null) {
+                return task;
+            }
+            task = submissions.removeFirst();
+            if (task != null) {
+                return task;
+            }
+            int n = workers.length;
+            int start = ThreadLocalRandom.current().nextInt(n);
+            for (int i = 0; i < n; i++) {
+                int victim = (start + i) % n;
+                if (victim != index) {
+                    task = workers[victim].tasks.steal();
+                    if (task != null) {
+                        return task;
+                    }
+                }
+            }
+            return null;
+        }
+
+        void runTask(Runnable task) {
+            try {
+                task.run();
+            } catch (Throwable t) {
+                failure.compareAndSet(null, t);
+            }
+            if (pending.decrementAndGet() == 0) {
+                synchronized (quiescence) {
+                    quiescence.notifyAll();
+                }
+            }
+        }
+
+        @Override
+        public void run() {
+            while (true) {
+                Runnable task = findTask();
+                if (task != null) {
+                    runTask(task);
+                    continue;
+                }
+                if (!running) {
+                    return;
+                }
+                idle = true;
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                idle = false;
+            }
+        }
+    }
+}
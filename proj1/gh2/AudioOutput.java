@@ -0,0 +1,84 @@
+package gh2;
+
+import edu.princeton.cs.algs4.StdAudio;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Plays samples through StdAudio on a dedicated daemon thread, so that the
+ * thread synthesizing them can render ahead and a GC pause or a slow key
+ * poll there does not starve the sound card.
+ *
+ * The synthesis thread write()s into an AudioRingBuffer; the output thread
+ * takes BLOCK samples at a time and hands them to StdAudio.play(double[]),
+ * which blocks while the sound card is busy. If the ring has run dry the
+ * block is padded with silence and the ring counts an underrun. Underruns
+ * are only counted once the first samples have arrived and until close().
+ */
+public class AudioOutput implements AutoCloseable {
+    /* Samples handed to StdAudio per call. */
+    private static final int BLOCK = 256;
+    /* How long a waiting thread sleeps before looking at the ring again. */
+    private static final long PARK_NANOS = 200_000;
+
+    private final AudioRingBuffer ring;
+    private final Thread thread;
+    private volatile boolean started;
+    private volatile boolean closing;
+
+    /** Starts an output thread behind a ring of at least CAPACITY samples. */
+    public AudioOutput(int capacity) {
+        ring = new AudioRingBuffer(capacity);
+        thread = new Thread(this::run, "audio-output");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MAX_PRIORITY);
+        thread.start();
+    }
+
+    public AudioRingBuffer buffer() {
+        return ring;
+    }
+
+    /**
+     * Queues SAMPLES[0] through SAMPLES[N - 1] for playback, waiting while
+     * the ring is full. Call from one synthesis thread only.
+     */
+    public void write(double[] samples, int n) {
+        int done = ring.write(samples, 0, n);
+        started = true;
+        while (done < n) {
+            LockSupport.parkNanos(PARK_NANOS);
+            done += ring.write(samples, done, n - done);
+        }
+    }
+
+    private void run() {
+        double[] block = new double[BLOCK];
+        while (!closing || ring.size() > 0) {
+            if (!started) {
+                LockSupport.parkNanos(PARK_NANOS);
+                continue;
+            }
+            if (closing) {
+                /* Play out what is left without counting the tail as an underrun. */
+                int n = ring.read(block, 0, BLOCK);
+                Arrays.fill(block, n, BLOCK, 0.0);
+            } else {
+                ring.readFully(block, BLOCK);
+            }
+            StdAudio.play(block);
+        }
+    }
+
+    /** Waits for everything written so far to be played, then stops the output thread. */
+    @Override
+    public void close() {
+        closing = true;
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package gh2;
+
+import java.util.Arrays;
+
+/**
+ * A single-producer, single-consumer ring of samples, with no locks. One
+ * thread writes, another reads, and neither ever waits on the other inside
+ * these methods: a write that doesn't fit or a read that finds too little
+ * just moves fewer samples.
+ *
+ * As in WorkStealingDeque, head and tail are ever-increasing counters
+ * masked down to a power-of-two array. Only the consumer writes head and
+ * only the producer writes tail; each publishes its progress with one
+ * volatile write per call, not per sample.
+ *
+ * The consumer also keeps metrics: how many reads came up short
+ * (underruns), how many samples were missing, and the lowest fill level it
+ * has seen since the last resetStats().
+ */
+public class AudioRingBuffer {
+    private final double[] samples;
+    private final int mask;
+    /* Index of the next sample to read; only written by the consumer. */
+    private volatile long head;
+    /* Index of the next free slot; only written by the producer. */
+    private volatile long tail;
+
+    private volatile long underruns;
+    private volatile long missingSamples;
+    private volatile int lowWater;
+
+    /** Creates an empty ring with room for at least CAPACITY samples. */
+    public AudioRingBuffer(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        }
+        int length = 1;
+        while (length < capacity) {
+            length *= 2;
+        }
+        samples = new double[length];
+        mask = length - 1;
+        lowWater = length;
+    }
+
+    public int capacity() {
+        return samples.length;
+    }
+
+    /** Returns the number of samples waiting to be read. */
+    public int size() {
+        return (int) (tail - head);
+    }
+
+    /** Returns size() as a fraction of capacity(). */
+    public double fillLevel() {
+        return (double) size() / samples.length;
+    }
+
+    /**
+     * Copies up to LEN samples from SRC[OFF...] into the ring and returns how
+     * many fit. Producer thread only.
+     */
+    public int write(double[] src, int off, int len) {
+        long t = tail;
+        int n = Math.min(len, samples.length - (int) (t - head));
+        int first = (int) t & mask;
+        int firstPart = Math.min(n, samples.length - first);
+        System.arraycopy(src, off, samples, first, firstPart);
+        System.arraycopy(src, off + firstPart, samples, 0, n - firstPart);
+        /* The volatile write publishes the samples to the consumer. */
+        tail = t + n;
+        return n;
+    }
+
+    /**
+     * Copies up to LEN samples out of the ring into DST[OFF...] and returns
+     * how many there were. Consumer thread only.
+     */
+    public int read(double[] dst, int off, int len) {
+        long h = head;
+        int available = (int) (tail - h);
+        if (available < lowWater) {
+            lowWater = available;
+        }
+        int n = Math.min(len, available);
+        int first = (int) h & mask;
+        int firstPart = Math.min(n, samples.length - first);
+        System.arraycopy(samples, first, dst, off, firstPart);
+        System.arraycopy(samples, 0, dst, off + firstPart, n - firstPart);
+        /* Only now may the producer reuse the slots. */
+        head = h + n;
+        return n;
+    }
+
+    /**
+     * Fills DST[0] through DST[LEN - 1], padding with silence and counting
+     * an underrun if the ring runs dry. Consumer thread only.
+     */
+    public void readFully(double[] dst, int len) {
+        int n = read(dst, 0, len);
+        if (n < len) {
+            Arrays.fill(dst, n, len, 0.0);
+            underruns += 1;
+            missingSamples += len - n;
+        }
+    }
+
+    /** Returns the number of reads by readFully() that came up short. */
+    public long underruns() {
+        return underruns;
+    }
+
+    /** Returns the number of samples readFully() had to replace with silence. */
+    public long missingSamples() {
+        return missingSamples;
+    }
+
+    /** Returns the lowest size() seen by a read since the last resetStats(). */
+    public int lowWater() {
+        return lowWater;
+    }
+
+    /** Zeroes the metrics. Consumer thread only. */
+    public void resetStats() {
+        underruns = 0;
+        missingSamples = 0;
+        lowWater = samples.length;
+    }
+}
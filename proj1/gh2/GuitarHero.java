@@ -0,0 +1,93 @@
+package gh2;
+
+import edu.princeton.cs.algs4.Draw;
+import edu.princeton.cs.algs4.DrawListener;
+
+/**
+ * A 37-key polyphonic guitar. The keys of KEYBOARD, left to right, play the
+ * chromatic scale from 110 Hz (key 0) up three octaves; the 'v' key is
+ * concert A.
+ *
+ * Notes are played by a VoicePool of a fixed number of strings (the first
+ * command-line argument, 8 by default), so the work per block is bounded
+ * however fast keys are typed. When all voices are busy the oldest note is
+ * stolen. Keys reach the audio loop through a NoteOnQueue as in
+ * GuitarHeroLite. Nothing is allocated once the loop has started.
+ */
+public class GuitarHero implements DrawListener {
+    public static final String KEYBOARD = "q2we4r5ty7u8i9op-[=zxdcfvgbnjmk,.;/' ";
+
+    private static final int BLOCK = 128;
+    private static final int RENDER_AHEAD = 1024;
+    private static final int DEFAULT_VOICES = 8;
+
+    private final NoteOnQueue keys = new NoteOnQueue(64);
+
+    /* Returns the frequency played by KEYBOARD.charAt(i). */
+    public static double frequency(int i) {
+        return 440.0 * Math.pow(2, (i - 24) / 12.0);
+    }
+
+    public static void main(String[] args) {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_VOICES;
+        GuitarHero hero = new GuitarHero();
+        Draw draw = new Draw("GuitarHero: " + KEYBOARD);
+        draw.addListener(hero);
+        hero.run(size);
+    }
+
+    private void run(int size) {
+        double[] frequencies = new double[KEYBOARD.length()];
+        for (int i = 0; i < frequencies.length; i++) {
+            frequencies[i] = frequency(i);
+        }
+        VoicePool pool = new VoicePool(size, frequencies[0], BLOCK, VoicePool.Stealing.OLDEST);
+        AudioOutput output = new AudioOutput(RENDER_AHEAD);
+        double[] block = new double[BLOCK];
+        int[] typed = new int[64];
+        long[] typedAt = new long[64];
+
+        while (true) {
+            int n = keys.drain(typed, typedAt);
+            for (int i = 0; i < n; i++) {
+                pool.noteOn(typed[i], frequencies[typed[i]]);
+            }
+            pool.render(block, BLOCK);
+            output.write(block, BLOCK);
+        }
+    }
+
+    /* DrawListener; see GuitarHeroLite. */
+
+    @Override
+    public void keyTyped(char c) {
+        int i = KEYBOARD.indexOf(c);
+        if (i >= 0) {
+            keys.offer(i);
+        }
+    }
+
+    @Override
+    public void mousePressed(double x, double y) {
+    }
+
+    @Override
+    public void mouseDragged(double x, double y) {
+    }
+
+    @Override
+    public void mouseReleased(double x, double y) {
+    }
+
+    @Override
+    public void mouseClicked(double x, double y) {
+    }
+
+    @Override
+    public void keyPressed(int keycode) {
+    }
+
+    @Override
+    public void keyReleased(int keycode) {
+    }
+}
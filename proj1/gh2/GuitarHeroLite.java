@@ -1,41 +1,175 @@
 package gh2;
+import edu.princeton.cs.algs4.Draw;
+import edu.princeton.cs.algs4.DrawListener;
 import edu.princeton.cs.algs4.StdAudio;
-import edu.princeton.cs.algs4.StdDraw;
+
+import java.util.Arrays;
 
 /**
  * A client that uses the synthesizer package to replicate a plucked guitar string sound
+ *
+ * Key presses arrive on the window's event thread through a DrawListener,
+ * which only posts them to a NoteOnQueue. The audio loop drains the queue
+ * once per block, so no sample waits on the keyboard. For each note it
+ * records the latency up to the output ring: the time from the key event
+ * to the start of the block the note begins in, plus the audio already
+ * queued in the ring ahead of that block. StdAudio's own sample buffer and
+ * the sound line's buffer sit after the ring and add several thousand more
+ * samples that this figure leaves out, so it is a lower bound on the
+ * key-to-sound latency. A reporter thread prints the figures, so the audio
+ * loop never waits on the console.
  */
-public class GuitarHeroLite {
+public class GuitarHeroLite implements DrawListener {
     public static final double CONCERT_A = 440.0;
     public static final double CONCERT_C = CONCERT_A * Math.pow(2, 3.0 / 12.0);
 
+    /* Samples rendered per block (about 3 ms). */
+    private static final int BLOCK = 128;
+    /* Samples queued ahead of the sound card (about 23 ms). */
+    private static final int RENDER_AHEAD = 1024;
+    /* How often the reporter thread looks for new latency figures. */
+    private static final long REPORT_MILLIS = 500;
+
+    private final NoteOnQueue keys = new NoteOnQueue(64);
+    private final LatencyStats latency = new LatencyStats();
+
     public static void main(String[] args) {
+        GuitarHeroLite hero = new GuitarHeroLite();
+        Draw draw = new Draw("GuitarHeroLite: type a or c");
+        draw.addListener(hero);
+        Thread reporter = new Thread(hero::report, "latency-report");
+        reporter.setDaemon(true);
+        reporter.start();
+        hero.run();
+    }
+
+    private void run() {
         /* create two guitar strings, for concert A and C */
         GuitarString stringA = new GuitarString(CONCERT_A);
         GuitarString stringC = new GuitarString(CONCERT_C);
 
+        /* samples are played on their own thread; this one only renders */
+        AudioOutput output = new AudioOutput(RENDER_AHEAD);
+        AudioRingBuffer ring = output.buffer();
+        double[] block = new double[BLOCK];
+        int[] typed = new int[64];
+        long[] typedAt = new long[64];
+
         while (true) {
 
-            /* check if the user has typed a key; if so, process it */
-            if (StdDraw.hasNextKeyTyped()) {
-                char key = StdDraw.nextKeyTyped();
-                if (key == 'a') {
-                    stringA.pluck();
-                } else if (key == 'c') {
-                    stringC.pluck();
+            /* handle the keys typed since the last block */
+            int n = keys.drain(typed, typedAt);
+            if (n > 0) {
+                long now = System.nanoTime();
+                /* what is queued in the ring now is played before this block */
+                double queuedMs = 1000.0 * ring.size() / StdAudio.SAMPLE_RATE;
+                for (int i = 0; i < n; i++) {
+                    if (typed[i] == 'a') {
+                        stringA.pluck();
+                    } else if (typed[i] == 'c') {
+                        stringC.pluck();
+                    } else {
+                        continue;
+                    }
+                    latency.record((now - typedAt[i]) / 1e6 + queuedMs);
                 }
             }
 
-            /* compute the superposition of samples */
-            double sample = stringA.sample() + stringC.sample();
+            /* compute the superposition of the next block of samples */
+            Arrays.fill(block, 0.0);
+            stringA.mix(block, BLOCK, 1.0);
+            stringC.mix(block, BLOCK, 1.0);
 
-            /* play the sample on standard audio */
-            StdAudio.play(sample);
+            /* queue it for the output thread, waiting while the queue is full */
+            output.write(block, BLOCK);
+        }
+    }
 
-            /* advance the simulation of each guitar string by one step */
-            stringA.tic();
-            stringC.tic();
+    /* Prints the latency figures whenever new notes have been recorded. */
+    private void report() {
+        double[] snapshot = new double[4];
+        int printed = 0;
+        while (true) {
+            try {
+                Thread.sleep(REPORT_MILLIS);
+            } catch (InterruptedException e) {
+                return;
+            }
+            latency.read(snapshot);
+            int notes = (int) snapshot[0];
+            if (notes != printed) {
+                System.out.printf("latency to output ring %.1f ms (mean %.1f, max %.1f, %d notes)%n",
+                    snapshot[1], snapshot[2] / notes, snapshot[3], notes);
+                printed = notes;
+            }
         }
     }
-}
 
+    /**
+     * Key-to-ring latency figures, written by the audio loop and read by
+     * the reporter thread without locking. The writer makes version odd
+     * while it updates the figures; a reader retries until it has read them
+     * all under one even version.
+     */
+    private static final class LatencyStats {
+        private volatile int version;
+        private volatile int notes;
+        private volatile double lastMs;
+        private volatile double totalMs;
+        private volatile double maxMs;
+
+        /** Adds a note heard MS milliseconds after its key. Audio loop only. */
+        void record(double ms) {
+            version += 1;
+            notes += 1;
+            lastMs = ms;
+            totalMs += ms;
+            maxMs = Math.max(maxMs, ms);
+            version += 1;
+        }
+
+        /** Copies the note count, last, total and max latency into OUT. */
+        void read(double[] out) {
+            int v;
+            do {
+                v = version;
+                out[0] = notes;
+                out[1] = lastMs;
+                out[2] = totalMs;
+                out[3] = maxMs;
+            } while ((v & 1) != 0 || v != version);
+        }
+    }
+
+    /* DrawListener. Only keyTyped does anything; the rest are here for
+     * versions of algs4 without default methods. */
+
+    @Override
+    public void keyTyped(char c) {
+        keys.offer(c);
+    }
+
+    @Override
+    public void mousePressed(double x, double y) {
+    }
+
+    @Override
+    public void mouseDragged(double x, double y) {
+    }
+
+    @Override
+    public void mouseReleased(double x, double y) {
+    }
+
+    @Override
+    public void mouseClicked(double x, double y) {
+    }
+
+    @Override
+    public void keyPressed(int keycode) {
+    }
+
+    @Override
+    public void keyReleased(int keycode) {
+    }
+}
@@ -1,21 +1,62 @@
 package gh2;
 
+import deque.WorkStealingExecutor;
 import edu.princeton.cs.algs4.StdAudio;
 
 import javax.sound.midi.*;
+import javax.sound.sampled.AudioFileFormat;
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.BufferedOutputStream;
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
 
 /**
- * Plays guitar from MIDI files.
+ * Plays guitar from MIDI files, or renders them to a WAV file.
  *
  * @author Eli Lipsitz
  */
 public class GuitarPlayer {
+    /* Samples rendered per block handed to the output thread. */
+    private static final int BLOCK = 1024;
+    /* Samples the synthesis thread may render ahead of the sound card. */
+    private static final int RENDER_AHEAD = 8192;
+    /* Samples rendered per step when writing a WAV file. */
+    private static final int SEGMENT = 1 << 16;
+    /* Shortest step worth splitting across workers, one string per task. */
+    private static final int PARALLEL_THRESHOLD = 4096;
+
     private Sequence sequence = null;
-    private GuitarString[] strings;
+    private Synth[] strings;
+    /* If set, notes replay recordings from here instead of being simulated,
+     * through replays, one voice per note that is reused on every note-on. */
+    private WavetableCache cache;
+    private WavetableVoice[] replays;
     private double[] vol;
+    /* The strings still sounding, in active[0] through active[activeCount - 1].
+     * A string joins on note-on and leaves on note-off or once it decays
+     * below Synth.SILENCE; only these are ticked and mixed. */
+    private int[] active;
+    private int activeCount;
+    private boolean[] sounding;
+    private double[] frame;
+    /* Where play() sends its blocks. */
+    private AudioOutput output;
+
+    /* Offline rendering state; pcm is null while playing through StdAudio. */
+    private ByteArrayOutputStream pcm;
+    private WorkStealingExecutor executor;
+    private double[] segment;
+    private double[][] voices;
+    /* Shortest step that renderOffline splits across workers. */
+    private int parallelThreshold;
 
     public GuitarPlayer(InputStream source) {
         try {
@@ -33,29 +74,168 @@ public class GuitarPlayer {
         }
     }
 
+    /**
+     * Makes every note replay a recording from CACHE, rendered the first
+     * time each frequency is played, instead of simulating a string. Pass null to go back to simulating.
+     *
+     * Replaying is a little cheaper than simulating with the vectorized
+     * kernel, but each first note at a frequency records a whole string to
+     * silence, several seconds of samples, even if the note is cut short.
+     * A cache pays off when it is shared across performances, or for voice
+     * models that cost more than GuitarString.
+     */
+    public void setWavetableCache(WavetableCache cache) {
+        this.cache = cache;
+    }
+
+    private static double frequency(int note) {
+        return 440.0 * Math.pow(2.0, (note - 69.0) / 12.0);
+    }
+
     private void initialize() {
-        strings = new GuitarString[128];
+        strings = new Synth[128];
+        replays = cache == null ? null : new WavetableVoice[128];
         vol = new double[128];
         for (int i = 0; i < strings.length; i++) {
-            strings[i] = new GuitarString(440.0 * Math.pow(2.0, (i - 69.0) / 12.0));
+            if (cache != null) {
+                replays[i] = new WavetableVoice();
+                strings[i] = replays[i];
+            } else {
+                strings[i] = new GuitarString(frequency(i));
+            }
             vol[i] = 0.0;
         }
+        active = new int[128];
+        activeCount = 0;
+        sounding = new boolean[128];
+        frame = new double[BLOCK];
     }
 
-    private void tic() {
-        for (int i = 0; i < strings.length; i++) {
-            if (vol[i] > 0.0) {
-                strings[i].tic();
+    /* Plucks NOTE at VELOCITY and adds it to the active set. A note-on with
+     * velocity zero is a note-off. */
+    private void noteOn(int note, int velocity) {
+        if (velocity == 0) {
+            noteOff(note);
+            return;
+        }
+        if (cache != null) {
+            replays[note].setTable(cache.get(frequency(note)));
+        }
+        vol[note] = velocity / 127.0;
+        strings[note].pluck();
+        if (!sounding[note]) {
+            sounding[note] = true;
+            active[activeCount] = note;
+            activeCount += 1;
+        }
+    }
+
+    /* Silences NOTE and drops it from the active set. */
+    private void noteOff(int note) {
+        vol[note] = 0.0;
+        for (int i = 0; i < activeCount; i++) {
+            if (active[i] == note) {
+                removeActive(i);
+                break;
             }
         }
     }
 
-    private double sample() {
-        double sum = 0.0f;
-        for (int i = 0; i < strings.length; i++) {
-            sum += vol[i] * strings[i].sample();
+    private void removeActive(int i) {
+        sounding[active[i]] = false;
+        activeCount -= 1;
+        active[i] = active[activeCount];
+    }
+
+    /* Drops the strings that have decayed below Synth.SILENCE. Called once per
+     * rendered block rather than per sample. */
+    private void dropSilentVoices() {
+        int i = 0;
+        while (i < activeCount) {
+            if (strings[active[i]].energy() < Synth.SILENCE) {
+                removeActive(i);
+            } else {
+                i += 1;
+            }
+        }
+    }
+
+    /* Renders the next N <= BLOCK samples into frame. Silent strings are
+     * neither advanced nor mixed. */
+    private void renderBlock(int n) {
+        Arrays.fill(frame, 0, n, 0.0);
+        for (int i = 0; i < activeCount; i++) {
+            int note = active[i];
+            strings[note].mix(frame, n, vol[note]);
+        }
+        dropSilentVoices();
+    }
+
+    /* Renders and plays the next COUNT samples, a block at a time. */
+    private void render(int count) {
+        if (pcm != null) {
+            renderOffline(count);
+            return;
+        }
+        while (count > 0) {
+            int n = Math.min(count, BLOCK);
+            renderBlock(n);
+            output.write(frame, n);
+            count -= n;
+        }
+    }
+
+    /* Renders the next COUNT samples into pcm, a segment at a time. When
+     * several notes are sounding, each string renders its own buffer on a
+     * separate worker and the buffers are then summed in active order, which
+     * adds the same numbers in the same order as the serial path. */
+    private void renderOffline(int count) {
+        while (count > 0) {
+            int n = Math.min(count, SEGMENT);
+            if (activeCount > 1 && n >= parallelThreshold) {
+                for (int i = 0; i < activeCount; i++) {
+                    int note = active[i];
+                    if (voices[note] == null) {
+                        voices[note] = new double[SEGMENT];
+                    }
+                    double[] v = voices[note];
+                    double gain = vol[note];
+                    Synth voice = strings[note];
+                    executor.execute(() -> {
+                        Arrays.fill(v, 0, n, 0.0);
+                        voice.mix(v, n, gain);
+                    });
+                }
+                try {
+                    executor.awaitQuiescence();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while rendering", e);
+                }
+                Arrays.fill(segment, 0, n, 0.0);
+                for (int i = 0; i < activeCount; i++) {
+                    double[] v = voices[active[i]];
+                    for (int k = 0; k < n; k++) {
+                        segment[k] += v[k];
+                    }
+                }
+            } else {
+                Arrays.fill(segment, 0, n, 0.0);
+                for (int i = 0; i < activeCount; i++) {
+                    int note = active[i];
+                    strings[note].mix(segment, n, vol[note]);
+                }
+            }
+            for (int k = 0; k < n; k++) {
+                /* 16-bit little-endian, clipped, as StdAudio.play does it. */
+                double x = Math.max(-1.0, Math.min(1.0, segment[k]));
+                short sample = (short) (x * Short.MAX_VALUE);
+                pcm.write(sample & 0xFF);
+                pcm.write((sample >> 8) & 0xFF);
+            }
+            dropSilentVoices();
+            count -= n;
         }
-        return sum;
     }
 
     public void play() {
@@ -65,50 +245,99 @@ public class GuitarPlayer {
 
         System.out.println("starting performance...");
         initialize();
-        double bpm = 120;
-        double samplesPerTick = StdAudio.SAMPLE_RATE * (60.0 / (sequence.getResolution() * bpm));
-
-        Track[] tracks = sequence.getTracks();
-        Track track = sequence.createTrack();
-        int maxSize = 0;
-        int lead = 0;
-        for (int i = 0; i < tracks.length; i++) {
-            for (int j = 0; j < tracks[i].size(); j++) {
-                track.add(tracks[i].get(j));
-            }
+        output = new AudioOutput(RENDER_AHEAD);
+        try {
+            perform();
+        } finally {
+            output.close();
+        }
+        AudioRingBuffer ring = output.buffer();
+        output = null;
+        if (ring.underruns() > 0) {
+            System.out.println(ring.underruns() + " underruns, "
+                + ring.missingSamples() + " samples of silence inserted");
+        }
+        System.out.println("please clap");
+    }
+
+    /**
+     * Renders the whole sequence as fast as possible to TARGET, a mono 16-bit
+     * WAV file at StdAudio.SAMPLE_RATE, without touching the sound card.
+     * The strings that are sounding between two MIDI events are synthesized
+     * in parallel, one per worker.
+     */
+    public void renderToWav(File target) throws IOException {
+        if (sequence == null) {
+            return;
+        }
+        try (OutputStream out = new BufferedOutputStream(new FileOutputStream(target))) {
+            renderToWav(out, PARALLEL_THRESHOLD);
+        }
+    }
+
+    /**
+     * Renders the sequence as a WAV file into TARGET, splitting every step of
+     * at least PARALLELTHRESHOLD samples across workers. Pass
+     * Integer.MAX_VALUE to render everything serially.
+     */
+    void renderToWav(OutputStream target, int parallelThreshold) throws IOException {
+        if (sequence == null) {
+            return;
         }
 
+        initialize();
+        pcm = new ByteArrayOutputStream();
+        executor = new WorkStealingExecutor();
+        segment = new double[SEGMENT];
+        voices = new double[strings.length][];
+        this.parallelThreshold = parallelThreshold;
+        try {
+            perform();
+            byte[] bytes = pcm.toByteArray();
+            AudioFormat format = new AudioFormat(StdAudio.SAMPLE_RATE, 16, 1, true, false);
+            AudioInputStream ais = new AudioInputStream(new ByteArrayInputStream(bytes),
+                format, bytes.length / format.getFrameSize());
+            AudioSystem.write(ais, AudioFileFormat.Type.WAVE, target);
+        } finally {
+            executor.shutdown();
+            executor = null;
+            pcm = null;
+            segment = null;
+            voices = null;
+        }
+    }
+
+    /* Walks the MIDI events in order, rendering the samples between them. */
+    private void perform() {
+        TempoMap tempo = new TempoMap(sequence, StdAudio.SAMPLE_RATE);
+        MidiEventMerger events = new MidiEventMerger(sequence);
+
         long tick = 0;
-        for (int i = 0; i < track.size(); i++) {
-            MidiEvent event = track.get(i);
+        long rendered = 0;
+        while (events.hasNext()) {
+            MidiEvent event = events.next();
             MidiMessage msg = event.getMessage();
             byte[] data = msg.getMessage();
 
             if (msg instanceof MetaMessage) {
                 MetaMessage mm = (MetaMessage) msg;
-                if (mm.getType() == 0x51) {
-                    // set tempo
-                    data = mm.getData();
-                    int tempo = (data[0] & 0xff) << 16 | (data[1] & 0xff) << 8 | (data[2] & 0xff);
-                    bpm = 60000000.0 / tempo;
-                    samplesPerTick = StdAudio.SAMPLE_RATE
-                        * (60.0 / (sequence.getResolution() * bpm));
-                } else if (mm.getType() == 0x05) {
+                // tempo changes (0x51) are already in the tempo map
+                if (mm.getType() == 0x05) {
                     // lyrics
                     data = mm.getData();
                     String lyrics = new String(data);
                     lyrics = lyrics.replace("\r", "\r\n");
-                    System.out.print(lyrics);
+                    if (pcm == null) {
+                        System.out.print(lyrics);
+                    }
                 }
                 continue;
             }
 
             if (event.getTick() > tick) {
-                int samplesToSkip = (int) ((event.getTick() - tick) * samplesPerTick);
-                for (int j = 0; j < samplesToSkip; j++) {
-                    tic();
-                    StdAudio.play(sample());
-                }
+                long target = tempo.sampleAt(event.getTick());
+                render((int) (target - rendered));
+                rendered = target;
                 tick = event.getTick();
             }
 
@@ -120,13 +349,12 @@ public class GuitarPlayer {
                     // note off
                     int note = data[j++] & 0xFF;
                     int vel = data[j++] & 0xFF;
-                    vol[note] = 0.0;
+                    noteOff(note);
                 } else if (s >= 0x90 && s <= 0x9F) {
                     // note on?
                     int note = data[j++] & 0xFF;
                     int vel = data[j++] & 0xFF;
-                    vol[note] = vel / 127.0;
-                    strings[note].pluck();
+                    noteOn(note, vel);
                 } else {
                     // status
                     int d = data[j++] & 0xFF;
@@ -134,7 +362,5 @@ public class GuitarPlayer {
                 }
             }
         }
-
-        System.out.println("please clap");
     }
 }
@@ -1,54 +1,152 @@
 package gh2;
 
-import deque.ArrayDeque;
-import deque.Deque;
+import java.util.Arrays;
 
-//Note: This file will not compile until you complete the Deque implementations
-public class GuitarString {
+public class GuitarString implements Synth {
     /** Constants. Do not change. In case you're curious, the keyword final
      * means the values cannot be changed at runtime. We'll discuss this and
      * other topics in lecture on Friday. */
     private static final int SR = 44100;      // Sampling Rate
     private static final double DECAY = .996; // energy decay factor
 
-    /* Buffer for storing sound data. */
-     private Deque<Double> buffer;
+    /* Picks the vector or scalar inner loop once, for every string. */
+    private static final TicKernel KERNEL = TicKernel.best();
+
+    /* Ring buffer for storing sound data, in ring[0] through
+     * ring[length - 1]; the rest of the array is spare room for tune(). The
+     * front is ring[head], and the back is the slot just before it, so a
+     * tic overwrites the old front with the new back in place. A
+     * DoubleDeque would move both ends on every tic, and its live window
+     * would slide around a power-of-two array, so ticBlock could not hand
+     * the kernel one in-place run of the ring. */
+    private final double[] ring;
+    private int length;
+    private int head;
+    /* Feedback gain applied by every tic; DECAY for a guitar. */
+    private final double decay;
+    /* Sum of the squares of the values in ring, kept up to date by tic(). */
+    private double sumOfSquares;
+    /* Scratch space for mix(). */
+    private double[] block;
 
     /* Create a guitar string of the given frequency.  */
     public GuitarString(double frequency) {
-        int length = (int) Math.round(SR / frequency);
-        buffer = new ArrayDeque<>();
-        for(int i = 0; i < length; i++) {
-            buffer.addLast(0.0);
+        this((int) Math.round(SR / frequency), DECAY);
+    }
+
+    /* Create a guitar string of the given frequency that can later be
+     * tune()d to any frequency down to LOWESTFREQUENCY without allocating. */
+    public GuitarString(double frequency, double lowestFrequency) {
+        this((int) Math.round(SR / lowestFrequency), DECAY);
+        tune(frequency);
+    }
+
+    /* Create a string with a ring of LENGTH samples and the given feedback
+     * gain, for variants such as HarpString. */
+    protected GuitarString(int length, double decay) {
+        ring = new double[length];
+        this.length = length;
+        head = 0;
+        this.decay = decay;
+    }
+
+    /* Return the ring length that sounds at FREQUENCY. */
+    protected int lengthFor(double frequency) {
+        return (int) Math.round(SR / frequency);
+    }
+
+    /* Retune the string to FREQUENCY, silencing it. Throws
+     * IllegalArgumentException if the string was not built with room for
+     * a note that low. */
+    public void tune(double frequency) {
+        int newLength = lengthFor(frequency);
+        if (newLength > ring.length || newLength < 1) {
+            throw new IllegalArgumentException("Can't tune a string of capacity "
+                + ring.length + " to " + frequency + " Hz");
         }
+        length = newLength;
+        Arrays.fill(ring, 0, length, 0.0);
+        head = 0;
+        sumOfSquares = 0.0;
     }
 
 
     /* Pluck the guitar string by replacing the buffer with white noise. */
+    @Override
     public void pluck() {
         //       Make sure that your random numbers are different from each
         //       other. This does not mean that you need to check that the numbers
         //       are different from each other. It means you should repeatedly call
         //       Math.random() - 0.5 to generate new random numbers for each array index.
-        int size = buffer.size();
-        for (int i = 0; i < size; i++) {
-            buffer.removeFirst();
-            buffer.addLast(Math.random() - 0.5);
+        sumOfSquares = 0.0;
+        for (int i = 0; i < length; i++) {
+            double r = Math.random() - 0.5;
+            ring[i] = r;
+            sumOfSquares += r * r;
         }
+        head = 0;
     }
 
     /* Advance the simulation one time step by performing one iteration of
      * the Karplus-Strong algorithm.
      */
+    @Override
     public void tic() {
-        double frontDouble = buffer.removeFirst();
-        double newDouble = (frontDouble + buffer.get(0)) / 2.0 * DECAY;
-        buffer.addLast(newDouble);
+        int next = head + 1 == length ? 0 : head + 1;
+        double frontDouble = ring[head];
+        double newDouble = (frontDouble + ring[next]) / 2.0 * decay;
+        ring[head] = newDouble;
+        head = next;
+        sumOfSquares += newDouble * newDouble - frontDouble * frontDouble;
     }
 
     /* Return the double at the front of the buffer. */
+    @Override
     public double sample() {
-        return buffer.get(0);
+        return ring[head];
+    }
+
+    /* Advance the simulation N time steps, storing the sample after each
+     * step in OUT[0] through OUT[N - 1]. Produces exactly the same samples
+     * as N calls of tic() followed by sample(), but runs over the ring a
+     * contiguous stretch at a time, with the Vector API when available. */
+    @Override
+    public void ticBlock(double[] out, int n) {
+        int done = 0;
+        while (done < n) {
+            if (head == length - 1) {
+                /* The front's neighbour is ring[0]; take this step alone. */
+                tic();
+                out[done] = ring[head];
+                done += 1;
+                continue;
+            }
+            int len = Math.min(n - done, length - 1 - head);
+            sumOfSquares += KERNEL.tic(ring, head, out, done, len, decay);
+            head += len;
+            done += len;
+        }
+    }
+
+    /* Advance the simulation N time steps, adding GAIN times the sample
+     * after each step to OUT[0] through OUT[N - 1]. */
+    @Override
+    public void mix(double[] out, int n, double gain) {
+        if (block == null || block.length < n) {
+            block = new double[n];
+        }
+        ticBlock(block, n);
+        for (int i = 0; i < n; i++) {
+            out[i] += gain * block[i];
+        }
+    }
+
+    /* Return the mean square of the values in the buffer, a running
+     * estimate of how loud the string still is. Costs O(1): the sum is
+     * updated on every tic and recomputed from scratch on every pluck. */
+    @Override
+    public double energy() {
+        return Math.max(0.0, sumOfSquares) / length;
     }
 
 }
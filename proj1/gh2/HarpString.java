@@ -0,0 +1,20 @@
+package gh2;
+
+/**
+ * A harp-like string: a GuitarString whose tic negates the new value.
+ * Flipping the sign halves the natural resonance frequency, so the ring is
+ * half as long as a guitar string's for the same pitch.
+ */
+public class HarpString extends GuitarString {
+    private static final int SR = 44100;
+    private static final double DECAY = .997;
+
+    public HarpString(double frequency) {
+        super(Math.max(1, (int) Math.round(SR / frequency / 2)), -DECAY);
+    }
+
+    @Override
+    protected int lengthFor(double frequency) {
+        return Math.max(1, (int) Math.round(SR / frequency / 2));
+    }
+}
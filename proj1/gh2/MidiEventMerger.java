@@ -0,0 +1,72 @@
+package gh2;
+
+import javax.sound.midi.MidiEvent;
+import javax.sound.midi.Sequence;
+import javax.sound.midi.Track;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+
+/**
+ * Iterates over the events of every track of a Sequence in tick order, by a
+ * k-way merge of the tracks, each of which is already sorted. Holds one
+ * cursor per track rather than a merged copy of all the events, and finds
+ * each next event in O(log k). Events with the same tick come out in track
+ * order, and in their original order within a track.
+ */
+public class MidiEventMerger implements Iterator<MidiEvent> {
+    /** The position of the next unread event of one track. */
+    private static class Cursor implements Comparable<Cursor> {
+        private final Track track;
+        private final int trackIndex;
+        private int eventIndex;
+        private long tick;
+
+        Cursor(Track track, int trackIndex) {
+            this.track = track;
+            this.trackIndex = trackIndex;
+            eventIndex = 0;
+            tick = track.get(0).getTick();
+        }
+
+        @Override
+        public int compareTo(Cursor o) {
+            if (tick != o.tick) {
+                return Long.compare(tick, o.tick);
+            }
+            return Integer.compare(trackIndex, o.trackIndex);
+        }
+    }
+
+    private final PriorityQueue<Cursor> cursors;
+
+    public MidiEventMerger(Sequence sequence) {
+        Track[] tracks = sequence.getTracks();
+        cursors = new PriorityQueue<>(Math.max(1, tracks.length));
+        for (int i = 0; i < tracks.length; i++) {
+            if (tracks[i].size() > 0) {
+                cursors.add(new Cursor(tracks[i], i));
+            }
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        return !cursors.isEmpty();
+    }
+
+    @Override
+    public MidiEvent next() {
+        Cursor c = cursors.poll();
+        if (c == null) {
+            throw new NoSuchElementException();
+        }
+        MidiEvent event = c.track.get(c.eventIndex);
+        c.eventIndex += 1;
+        if (c.eventIndex < c.track.size()) {
+            c.tick = c.track.get(c.eventIndex).getTick();
+            cursors.add(c);
+        }
+        return event;
+    }
+}
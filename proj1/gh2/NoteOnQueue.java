@@ -0,0 +1,61 @@
+package gh2;
+
+/**
+ * A single-producer, single-consumer queue of note-on commands, with no
+ * locks and no allocation. Each command is an int (a key, a note number)
+ * and the System.nanoTime() at which it was posted, so the consumer can
+ * measure how long the command took to become sound.
+ *
+ * Built like AudioRingBuffer: parallel power-of-two arrays indexed by
+ * ever-increasing head and tail counters, each written by one side only.
+ */
+public class NoteOnQueue {
+    private final int[] commands;
+    private final long[] times;
+    private final int mask;
+    /* Index of the next command to take; only written by the consumer. */
+    private volatile long head;
+    /* Index of the next free slot; only written by the producer. */
+    private volatile long tail;
+
+    /** Creates an empty queue with room for at least CAPACITY commands. */
+    public NoteOnQueue(int capacity) {
+        int length = 1;
+        while (length < capacity) {
+            length *= 2;
+        }
+        commands = new int[length];
+        times = new long[length];
+        mask = length - 1;
+    }
+
+    /**
+     * Posts COMMAND, stamped with the current time. Returns false, dropping
+     * the command, if the queue is full. Producer thread only.
+     */
+    public boolean offer(int command) {
+        long t = tail;
+        if (t - head == commands.length) {
+            return false;
+        }
+        commands[(int) t & mask] = command;
+        times[(int) t & mask] = System.nanoTime();
+        tail = t + 1;
+        return true;
+    }
+
+    /**
+     * Moves up to COMMANDS.length pending commands, and their posting times,
+     * into COMMANDS and TIMES. Returns how many. Consumer thread only.
+     */
+    public int drain(int[] commands, long[] times) {
+        long h = head;
+        int n = (int) Math.min(commands.length, tail - h);
+        for (int i = 0; i < n; i++) {
+            commands[i] = this.commands[(int) (h + i) & mask];
+            times[i] = this.times[(int) (h + i) & mask];
+        }
+        head = h + n;
+        return n;
+    }
+}
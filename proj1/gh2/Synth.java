@@ -0,0 +1,46 @@
+package gh2;
+
+/**
+ * A plucked-string voice: something that can be plucked, advanced one
+ * sample at a time, and sampled. GuitarString is the Karplus-Strong
+ * model; HarpString and WavetableVoice are other models behind the same
+ * interface, so players can switch between them.
+ *
+ * The block methods have one-sample-at-a-time defaults. Models override
+ * them when they can do better.
+ */
+public interface Synth {
+    /** Mean square below which a voice is inaudible: an RMS of about one 16-bit step. */
+    double SILENCE = 1e-9;
+
+    /* Excite the voice, as at the start of a note. */
+    void pluck();
+
+    /* Advance the voice one time step. */
+    void tic();
+
+    /* Return the current sample. */
+    double sample();
+
+    /* Return a running estimate of the voice's mean square, so that players
+     * can drop it once it falls below SILENCE. Must be O(1). */
+    double energy();
+
+    /* Advance N time steps, storing the sample after each step in OUT[0]
+     * through OUT[N - 1]. */
+    default void ticBlock(double[] out, int n) {
+        for (int i = 0; i < n; i++) {
+            tic();
+            out[i] = sample();
+        }
+    }
+
+    /* Advance N time steps, adding GAIN times the sample after each step
+     * to OUT[0] through OUT[N - 1]. */
+    default void mix(double[] out, int n, double gain) {
+        for (int i = 0; i < n; i++) {
+            tic();
+            out[i] += gain * sample();
+        }
+    }
+}
@@ -18,7 +18,12 @@ public class TTFAF {
             InputStream source = new ByteArrayInputStream(Base64.getDecoder().decode(TTFAF));
             source = new GZIPInputStream(source);
             GuitarPlayer player = new GuitarPlayer(source);
-            player.play();
+            if (args.length > 0) {
+                // Render to the named WAV file instead of playing.
+                player.renderToWav(new java.io.File(args[0]));
+            } else {
+                player.play();
+            }
         } catch (IOException e) {
             e.printStackTrace();
         }
@@ -0,0 +1,84 @@
+package gh2;
+
+import javax.sound.midi.MetaMessage;
+import javax.sound.midi.MidiEvent;
+import javax.sound.midi.MidiMessage;
+import javax.sound.midi.Sequence;
+import java.util.Arrays;
+
+/**
+ * Converts MIDI ticks to sample positions, with every tempo change in the
+ * sequence worked out in advance. The ticks where the tempo changes split
+ * the song into segments of constant samples-per-tick; sampleAt() finds
+ * the segment by binary search. Positions are measured from the start of
+ * the song and rounded once, so rounding errors do not pile up from one
+ * event to the next.
+ */
+public class TempoMap {
+    /* Tempo until the first "set tempo" event, in microseconds per beat. */
+    private static final int DEFAULT_TEMPO = 500000;
+
+    /* Segment i starts at startTick[i], startSample[i] samples into the
+     * song, and lasts samplesPerTick[i] samples per tick. */
+    private long[] startTick;
+    private double[] startSample;
+    private double[] samplesPerTick;
+    private int segments;
+
+    public TempoMap(Sequence sequence, double sampleRate) {
+        double perMicro = sampleRate / 1e6 / sequence.getResolution();
+        startTick = new long[8];
+        startSample = new double[8];
+        samplesPerTick = new double[8];
+        startTick[0] = 0;
+        startSample[0] = 0.0;
+        samplesPerTick[0] = DEFAULT_TEMPO * perMicro;
+        segments = 1;
+
+        MidiEventMerger events = new MidiEventMerger(sequence);
+        while (events.hasNext()) {
+            MidiEvent event = events.next();
+            int tempo = tempoOf(event.getMessage());
+            if (tempo > 0) {
+                addSegment(event.getTick(), tempo * perMicro);
+            }
+        }
+    }
+
+    /** Returns the microseconds per beat set by MSG, or -1 if it does not set the tempo. */
+    static int tempoOf(MidiMessage msg) {
+        if (!(msg instanceof MetaMessage) || ((MetaMessage) msg).getType() != 0x51) {
+            return -1;
+        }
+        byte[] data = ((MetaMessage) msg).getData();
+        return (data[0] & 0xff) << 16 | (data[1] & 0xff) << 8 | (data[2] & 0xff);
+    }
+
+    private void addSegment(long tick, double rate) {
+        int last = segments - 1;
+        if (tick == startTick[last]) {
+            /* A later change at the same tick wins. */
+            samplesPerTick[last] = rate;
+            return;
+        }
+        if (segments == startTick.length) {
+            startTick = Arrays.copyOf(startTick, segments * 2);
+            startSample = Arrays.copyOf(startSample, segments * 2);
+            samplesPerTick = Arrays.copyOf(samplesPerTick, segments * 2);
+        }
+        startTick[segments] = tick;
+        startSample[segments] = startSample[last]
+            + (tick - startTick[last]) * samplesPerTick[last];
+        samplesPerTick[segments] = rate;
+        segments += 1;
+    }
+
+    /** Returns the number of samples from the start of the song to TICK. */
+    public long sampleAt(long tick) {
+        int i = Arrays.binarySearch(startTick, 0, segments, tick);
+        if (i < 0) {
+            i = -i - 2;
+        }
+        return (long) (startSample[i] + (tick - startTick[i]) * samplesPerTick[i]);
+    }
+}
@@ -0,0 +1,73 @@
+package gh2;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/** Tests AudioRingBuffer, single-threaded and with a producer and a consumer. */
+public class TestAudioRingBuffer {
+    @Test
+    public void testWrapAndMetrics() {
+        AudioRingBuffer ring = new AudioRingBuffer(6);
+        assertEquals(8, ring.capacity());
+        double[] src = {1, 2, 3, 4, 5, 6, 7, 8, 9, 10};
+        assertEquals(8, ring.write(src, 0, 10));
+        assertEquals(1.0, ring.fillLevel(), 0.0);
+
+        double[] dst = new double[10];
+        assertEquals(5, ring.read(dst, 0, 5));
+        // The next write wraps around the end of the array.
+        assertEquals(2, ring.write(src, 8, 2));
+        assertEquals(5, ring.size());
+
+        ring.readFully(dst, 10);
+        assertArrayEquals(new double[]{6, 7, 8, 9, 10, 0, 0, 0, 0, 0}, dst, 0.0);
+        assertEquals(1, ring.underruns());
+        assertEquals(5, ring.missingSamples());
+        assertEquals(5, ring.lowWater());
+
+        ring.resetStats();
+        assertEquals(0, ring.underruns());
+        assertEquals(8, ring.lowWater());
+    }
+
+    @Test
+    public void testProducerConsumer() throws InterruptedException {
+        AudioRingBuffer ring = new AudioRingBuffer(64);
+        int total = 1_000_000;
+        Thread producer = new Thread(() -> {
+            double[] block = new double[37];
+            int next = 0;
+            while (next < total) {
+                int n = Math.min(block.length, total - next);
+                for (int i = 0; i < n; i++) {
+                    block[i] = next + i;
+                }
+                int done = 0;
+                while (done < n) {
+                    int w = ring.write(block, done, n - done);
+                    if (w == 0) {
+                        Thread.yield();
+                    }
+                    done += w;
+                }
+                next += n;
+            }
+        });
+        producer.start();
+        double[] block = new double[50];
+        int expected = 0;
+        while (expected < total) {
+            int n = ring.read(block, 0, block.length);
+            if (n == 0) {
+                Thread.yield();
+            }
+            for (int i = 0; i < n; i++) {
+                assertEquals(expected, block[i], 0.0);
+                expected += 1;
+            }
+        }
+        producer.join();
+        assertEquals(0, ring.size());
+    }
+}
@@ -0,0 +1,82 @@
+package gh2;
+
+import org.junit.Test;
+
+import javax.sound.midi.InvalidMidiDataException;
+import javax.sound.midi.MidiEvent;
+import javax.sound.midi.MidiSystem;
+import javax.sound.midi.Sequence;
+import javax.sound.midi.ShortMessage;
+import javax.sound.midi.Track;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.UnsupportedAudioFileException;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import static org.junit.Assert.*;
+
+/** Tests GuitarPlayer's offline rendering. */
+public class TestGuitarPlayer {
+    private static MidiEvent message(int command, int pitch, long tick) throws InvalidMidiDataException {
+        return new MidiEvent(new ShortMessage(command, 0, pitch, 100), tick);
+    }
+
+    /* A three-note chord, a second note under it, then a long tail, all
+     * long enough that every step spans several PARALLEL_THRESHOLDs. */
+    private static byte[] midi() throws InvalidMidiDataException, IOException {
+        Sequence seq = new Sequence(Sequence.PPQ, 480);
+        Track t = seq.createTrack();
+        for (int pitch : new int[] {60, 64, 67}) {
+            t.add(message(ShortMessage.NOTE_ON, pitch, 0));
+            t.add(message(ShortMessage.NOTE_OFF, pitch, 1920));
+        }
+        t.add(message(ShortMessage.NOTE_ON, 48, 480));
+        t.add(message(ShortMessage.NOTE_OFF, 48, 2400));
+        t.add(message(ShortMessage.NOTE_ON, 72, 2880));
+        t.add(message(ShortMessage.NOTE_OFF, 72, 3840));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        MidiSystem.write(seq, 0, out);
+        return out.toByteArray();
+    }
+
+    private static byte[] render(byte[] midi, WavetableCache cache, int parallelThreshold)
+            throws IOException {
+        GuitarPlayer player = new GuitarPlayer(new ByteArrayInputStream(midi));
+        player.setWavetableCache(cache);
+        ByteArrayOutputStream wav = new ByteArrayOutputStream();
+        player.renderToWav(wav, parallelThreshold);
+        return wav.toByteArray();
+    }
+
+    /* Fanning the strings out to workers must add the same numbers in the
+     * same order as the serial path. The plucks are random, so both renders
+     * replay the same recordings from one shared cache. */
+    @Test
+    public void testParallelRenderMatchesSerial()
+            throws InvalidMidiDataException, IOException, UnsupportedAudioFileException {
+        byte[] midi = midi();
+        WavetableCache cache = new WavetableCache(GuitarString::new, 16);
+        byte[] serial = render(midi, cache, Integer.MAX_VALUE);
+        byte[] parallel = render(midi, cache, 1);
+
+        AudioInputStream ais = AudioSystem.getAudioInputStream(new ByteArrayInputStream(serial));
+        assertEquals(1, ais.getFormat().getChannels());
+        assertEquals(16, ais.getFormat().getSampleSizeInBits());
+        /* 3840 ticks at 480 per beat and 120 beats per minute is 4 seconds. */
+        assertEquals(4 * (long) ais.getFormat().getSampleRate(), ais.getFrameLength());
+
+        assertFalse("the render should not be silent", allZero(serial, 44));
+        assertArrayEquals(serial, parallel);
+    }
+
+    private static boolean allZero(byte[] bytes, int from) {
+        for (int i = from; i < bytes.length; i++) {
+            if (bytes[i] != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
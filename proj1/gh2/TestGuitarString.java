@@ -79,5 +79,107 @@ public class TestGuitarString  {
         // for assertEquals(double, double)
         assertEquals("Wrong tic value. Try running the testTic method.", expected, s5, 0.001);
     }
-}
 
+    @Test
+    public void testMix() {
+        // A string of length 4, as above. mix() should produce exactly the
+        // samples that tic() followed by sample() would, scaled by the gain.
+        GuitarString s = new GuitarString(11025);
+        s.pluck();
+        double[] x = new double[13];
+        x[0] = s.sample();
+        double[] out = new double[12];
+        s.mix(out, 12, 1.0);
+        System.arraycopy(out, 0, x, 1, 12);
+        for (int k = 0; k + 4 < x.length; k++) {
+            assertEquals((x[k] + x[k + 1]) / 2.0 * 0.996, x[k + 4], 0.0);
+        }
+
+        double[] scaled = {1.0, 1.0};
+        double next = (x[9] + x[10]) / 2.0 * 0.996;
+        s.mix(scaled, 1, 0.5);
+        assertEquals(1.0 + 0.5 * next, scaled[0], 0.0);
+        assertEquals(1.0, scaled[1], 0.0);
+    }
+
+    @Test
+    public void testEnergy() {
+        GuitarString s = new GuitarString(11025);
+        assertEquals(0.0, s.energy(), 0.0);
+        s.pluck();
+        double e = s.energy();
+
+        // The next four samples are the buffer's contents.
+        double sum = 0.0;
+        for (int i = 0; i < 4; i++) {
+            sum += s.sample() * s.sample();
+            s.tic();
+        }
+        assertEquals(sum / 4, e, 1e-12);
+
+        double[] out = new double[100000];
+        s.mix(out, out.length, 1.0);
+        assertTrue("A plucked string should decay", s.energy() < 1e-9);
+    }
+
+    @Test
+    public void testTicBlockMatchesTic() {
+        // A string of length 37, so that blocks wrap around the ring at
+        // different places. Record the contents by ticcing once around it,
+        // then check ticBlock() against the recurrence, bit for bit.
+        GuitarString s = new GuitarString(44100.0 / 37);
+        s.pluck();
+        double[] x = new double[37 + 1000];
+        for (int i = 0; i < 37; i++) {
+            x[i] = s.sample();
+            s.tic();
+        }
+        x[37] = s.sample();
+        for (int k = 0; k + 38 < x.length; k++) {
+            x[k + 38] = (x[k + 1] + x[k + 2]) / 2.0 * 0.996;
+        }
+        int pos = 37;
+        for (int n : new int[]{1, 5, 36, 37, 38, 100, 250, 13}) {
+            double[] out = new double[n];
+            s.ticBlock(out, n);
+            for (int i = 0; i < n; i++) {
+                assertEquals(Double.doubleToRawLongBits(x[pos + 1 + i]),
+                    Double.doubleToRawLongBits(out[i]));
+            }
+            pos += n;
+        }
+        assertEquals(x[pos], s.sample(), 0.0);
+    }
+
+    @Test
+    public void testKernelsAgree() {
+        java.util.Random r = new java.util.Random(61);
+        double[] a = new double[1001];
+        for (int i = 0; i < a.length; i++) {
+            a[i] = r.nextDouble() - 0.5;
+        }
+        double[] b = a.clone();
+        double[] outA = new double[1000];
+        double[] outB = new double[1000];
+        double deltaA = TicKernel.SCALAR.tic(a, 3, outA, 0, 997, 0.996);
+        double deltaB = TicKernel.best().tic(b, 3, outB, 0, 997, 0.996);
+        assertArrayEquals(a, b, 0.0);
+        assertArrayEquals(outA, outB, 0.0);
+        assertEquals(deltaA, deltaB, 1e-9);
+    }
+
+    @Test
+    public void testHarpString() {
+        // A harp string negates each new value, and is half as long as a
+        // guitar string of the same pitch.
+        HarpString s = new HarpString(11025.0 / 2);
+        s.pluck();
+        double s1 = s.sample();
+        s.tic();
+        double s2 = s.sample();
+        s.tic();
+        s.tic();
+        s.tic();
+        assertEquals(-0.997 * 0.5 * (s1 + s2), s.sample(), 1e-15);
+    }
+}
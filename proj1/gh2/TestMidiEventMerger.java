@@ -0,0 +1,70 @@
+package gh2;
+
+import org.junit.Test;
+
+import javax.sound.midi.InvalidMidiDataException;
+import javax.sound.midi.MetaMessage;
+import javax.sound.midi.MidiEvent;
+import javax.sound.midi.Sequence;
+import javax.sound.midi.ShortMessage;
+import javax.sound.midi.Track;
+
+import static org.junit.Assert.*;
+
+/** Tests MidiEventMerger and TempoMap on small hand-made sequences. */
+public class TestMidiEventMerger {
+    private static MidiEvent note(int pitch, long tick) throws InvalidMidiDataException {
+        return new MidiEvent(new ShortMessage(ShortMessage.NOTE_ON, 0, pitch, 100), tick);
+    }
+
+    private static MidiEvent tempo(int microsPerBeat, long tick) throws InvalidMidiDataException {
+        byte[] data = {(byte) (microsPerBeat >> 16), (byte) (microsPerBeat >> 8), (byte) microsPerBeat};
+        return new MidiEvent(new MetaMessage(0x51, data, 3), tick);
+    }
+
+    @Test
+    public void testMergeOrder() throws InvalidMidiDataException {
+        Sequence seq = new Sequence(Sequence.PPQ, 100);
+        Track a = seq.createTrack();
+        Track b = seq.createTrack();
+        seq.createTrack(); // holds only its end-of-track event
+        a.add(note(1, 0));
+        a.add(note(2, 50));
+        a.add(note(3, 50));
+        b.add(note(4, 10));
+        b.add(note(5, 50));
+        b.add(note(6, 300));
+
+        long lastTick = -1;
+        StringBuilder notes = new StringBuilder();
+        MidiEventMerger events = new MidiEventMerger(seq);
+        while (events.hasNext()) {
+            MidiEvent e = events.next();
+            assertTrue(e.getTick() >= lastTick);
+            lastTick = e.getTick();
+            if (e.getMessage() instanceof ShortMessage) {
+                notes.append(((ShortMessage) e.getMessage()).getData1());
+            }
+        }
+        // Ties go to the earlier track, then to the earlier event.
+        assertEquals("142356", notes.toString());
+    }
+
+    @Test
+    public void testTempoMap() throws InvalidMidiDataException {
+        // 100 ticks per beat; 120 bpm until tick 200, then 60 bpm.
+        Sequence seq = new Sequence(Sequence.PPQ, 100);
+        Track t = seq.createTrack();
+        t.add(tempo(1000000, 200));
+        t.add(note(60, 400));
+        TempoMap map = new TempoMap(seq, 1000);
+
+        // 0.5 s per beat at first, so 5 samples per tick at 1000 samples/s.
+        assertEquals(0, map.sampleAt(0));
+        assertEquals(500, map.sampleAt(100));
+        assertEquals(1000, map.sampleAt(200));
+        // Then 1 s per beat: 10 samples per tick.
+        assertEquals(1500, map.sampleAt(250));
+        assertEquals(3000, map.sampleAt(400));
+    }
+}
@@ -0,0 +1,30 @@
+package gh2;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/** Tests NoteOnQueue. */
+public class TestNoteOnQueue {
+    @Test
+    public void testFifoAndFull() {
+        NoteOnQueue q = new NoteOnQueue(3);
+        long before = System.nanoTime();
+        for (int i = 0; i < 4; i++) {
+            assertTrue(q.offer(i));
+        }
+        assertFalse(q.offer(99));
+
+        int[] commands = new int[3];
+        long[] times = new long[3];
+        assertEquals(3, q.drain(commands, times));
+        assertArrayEquals(new int[]{0, 1, 2}, commands);
+        assertTrue(times[0] >= before && times[2] >= times[0]);
+
+        assertTrue(q.offer(4));
+        assertEquals(2, q.drain(commands, times));
+        assertEquals(3, commands[0]);
+        assertEquals(4, commands[1]);
+        assertEquals(0, q.drain(commands, times));
+    }
+}
@@ -0,0 +1,82 @@
+package gh2;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/** Tests VoicePool and GuitarString.tune(). */
+public class TestVoicePool {
+    @Test
+    public void testTune() {
+        GuitarString s = new GuitarString(440.0, 110.0);
+        s.pluck();
+        s.tune(220.0);
+        assertEquals(0.0, s.sample(), 0.0);
+        assertEquals(0.0, s.energy(), 0.0);
+
+        // Tuned to 11025 Hz the ring is 4 long, as in testTicCalculations.
+        s.tune(11025);
+        s.pluck();
+        double s1 = s.sample();
+        s.tic();
+        double s2 = s.sample();
+        s.tic();
+        s.tic();
+        s.tic();
+        assertEquals(0.996 * 0.5 * (s1 + s2), s.sample(), 1e-15);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTuneTooLow() {
+        new GuitarString(440.0, 110.0).tune(55.0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRenderPastMaxBlock() {
+        VoicePool pool = new VoicePool(2, 110.0, 64, VoicePool.Stealing.OLDEST);
+        pool.noteOn(0, GuitarHero.frequency(0));
+        pool.render(new double[128], 128);
+    }
+
+    @Test
+    public void testStealOldest() {
+        VoicePool pool = new VoicePool(3, 110.0, 64, VoicePool.Stealing.OLDEST);
+        double[] out = new double[64];
+        for (int note = 0; note < 3; note++) {
+            pool.noteOn(note, GuitarHero.frequency(note));
+        }
+        assertEquals(3, pool.busy());
+        assertEquals(0, pool.steals());
+
+        // Replaying a sounding note reuses its voice.
+        pool.noteOn(1, GuitarHero.frequency(1));
+        assertEquals(0, pool.steals());
+
+        // A fourth note steals note 0, the oldest.
+        pool.noteOn(3, GuitarHero.frequency(3));
+        assertEquals(1, pool.steals());
+        assertEquals(3, pool.busy());
+        pool.noteOn(0, GuitarHero.frequency(0));
+        assertEquals(2, pool.steals());
+
+        pool.render(out, 64);
+        boolean nonzero = false;
+        for (double x : out) {
+            nonzero |= x != 0.0;
+        }
+        assertTrue(nonzero);
+    }
+
+    @Test
+    public void testVoicesFreeWhenSilent() {
+        VoicePool pool = new VoicePool(2, 110.0, 1024, VoicePool.Stealing.QUIETEST);
+        pool.noteOn(7, 440.0);
+        double[] out = new double[1024];
+        for (int i = 0; i < 200 && pool.busy() > 0; i++) {
+            pool.render(out, 1024);
+        }
+        assertEquals(0, pool.busy());
+        pool.render(out, 1024);
+        assertEquals(0.0, out[1023], 0.0);
+    }
+}
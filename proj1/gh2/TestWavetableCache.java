@@ -0,0 +1,68 @@
+package gh2;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+/** Tests WavetableCache and WavetableVoice. */
+public class TestWavetableCache {
+    @Test
+    public void testHitsAndEviction() {
+        WavetableCache cache = new WavetableCache(GuitarString::new, 2);
+        WavetableCache.Wavetable a = cache.get(440.0);
+        assertSame(a, cache.get(440.0));
+        WavetableCache.Wavetable b = cache.get(220.0);
+        assertSame(a, cache.get(440.0));
+        cache.get(110.0);
+        assertEquals(2, cache.hits());
+        assertEquals(3, cache.misses());
+        // 220 was least recently used, so it is gone.
+        assertNotSame(b, cache.get(220.0));
+    }
+
+    @Test
+    public void testReplay() {
+        WavetableCache cache = new WavetableCache(GuitarString::new, 4);
+        WavetableCache.Wavetable t = cache.get(440.0);
+        assertTrue(t.length() > 0);
+
+        // Sample by sample and block by block give the same recording.
+        WavetableVoice v = new WavetableVoice(t);
+        assertEquals(0.0, v.sample(), 0.0);
+        v.pluck();
+        double[] expected = new double[t.length() + 100];
+        for (int i = 0; i < expected.length; i++) {
+            expected[i] = v.sample();
+            v.tic();
+        }
+        assertEquals(0.0, v.energy(), 0.0);
+        assertEquals(0.0, expected[t.length()], 0.0);
+
+        v.pluck();
+        assertTrue(v.energy() > Synth.SILENCE);
+        double[] out = new double[expected.length - 1];
+        v.mix(out, 500, 1.0);
+        v.ticBlock(out, 10);
+        assertArrayEquals(Arrays.copyOfRange(expected, 501, 511), Arrays.copyOf(out, 10), 0.0);
+    }
+
+    /* A voice made without a recording is silent until setTable(). */
+    @Test
+    public void testSetTable() {
+        WavetableVoice v = new WavetableVoice();
+        v.pluck();
+        assertEquals(0.0, v.energy(), 0.0);
+        double[] out = new double[16];
+        v.mix(out, 16, 1.0);
+        assertArrayEquals(new double[16], out, 0.0);
+
+        WavetableCache.Wavetable t = new WavetableCache(GuitarString::new, 1).get(440.0);
+        v.setTable(t);
+        assertEquals(0.0, v.energy(), 0.0);
+        v.pluck();
+        assertEquals(t.samples[0], v.sample(), 0.0);
+        assertTrue(v.energy() > Synth.SILENCE);
+    }
+}
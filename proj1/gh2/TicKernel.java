@@ -0,0 +1,44 @@
+package gh2;
+
+/**
+ * The inner loop of the Karplus-Strong algorithm over a contiguous run of a
+ * GuitarString's ring: for each i in [0, len), replaces RING[FROM + i] with
+ * (RING[FROM + i] + RING[FROM + i + 1]) / 2.0 * DECAY and stores the old
+ * RING[FROM + i + 1], the sample after that tic, in OUT[OFF + i]. The run
+ * must not wrap, so FROM + len < RING.length.
+ *
+ * Returns the change in the ring's sum of squares.
+ */
+interface TicKernel {
+    double tic(double[] ring, int from, double[] out, int off, int len, double decay);
+
+    TicKernel SCALAR = (ring, from, out, off, len, decay) -> {
+        double delta = 0.0;
+        for (int i = 0; i < len; i++) {
+            double front = ring[from + i];
+            double next = ring[from + i + 1];
+            double x = (front + next) / 2.0 * decay;
+            ring[from + i] = x;
+            out[off + i] = next;
+            delta += x * x - front * front;
+        }
+        return delta;
+    };
+
+    /**
+     * Returns the vector kernel if the jdk.incubator.vector module is in the
+     * boot layer (java --add-modules jdk.incubator.vector), else SCALAR. The
+     * vector class is only loaded in the first case.
+     */
+    static TicKernel best() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+            try {
+                return (TicKernel) Class.forName("gh2.VectorTicKernel")
+                    .getDeclaredConstructor().newInstance();
+            } catch (ReflectiveOperationException | LinkageError e) {
+                return SCALAR;
+            }
+        }
+        return SCALAR;
+    }
+}
@@ -0,0 +1,35 @@
+package gh2;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * TicKernel using the Vector API. Each lane does the same add, divide and
+ * multiply as the scalar loop, so the samples match it bit for bit. Only the
+ * sum of squares is accumulated in a different order.
+ *
+ * Loading a vector of RING[FROM + i + 1 ...] before storing to
+ * RING[FROM + i ...] is safe: every slot is read before it is written, just
+ * as in the one-sample-at-a-time loop.
+ */
+final class VectorTicKernel implements TicKernel {
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    @Override
+    public double tic(double[] ring, int from, double[] out, int off, int len, double decay) {
+        DoubleVector delta = DoubleVector.zero(SPECIES);
+        int i = 0;
+        int upper = SPECIES.loopBound(len);
+        for (; i < upper; i += SPECIES.length()) {
+            DoubleVector front = DoubleVector.fromArray(SPECIES, ring, from + i);
+            DoubleVector next = DoubleVector.fromArray(SPECIES, ring, from + i + 1);
+            DoubleVector x = front.add(next).div(2.0).mul(decay);
+            x.intoArray(ring, from + i);
+            next.intoArray(out, off + i);
+            delta = delta.add(x.mul(x).sub(front.mul(front)));
+        }
+        return delta.reduceLanes(VectorOperators.ADD)
+            + SCALAR.tic(ring, from + i, out, off + i, len - i, decay);
+    }
+}
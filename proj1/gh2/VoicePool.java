@@ -0,0 +1,136 @@
+package gh2;
+
+import java.util.Arrays;
+
+/**
+ * A fixed number of GuitarString voices, shared by any number of notes.
+ * Every voice, and every buffer render() needs, is allocated up front, and
+ * each block costs at most one voice's work per voice in the pool, however
+ * many keys are down.
+ *
+ * noteOn() re-plucks the voice already playing that note if there is one,
+ * else takes a free voice, else steals one by the pool's Stealing policy.
+ * A voice is free again once its energy falls below Synth.SILENCE.
+ */
+public class VoicePool {
+    /** Which voice to take when every voice is busy. */
+    public enum Stealing {
+        /** The voice whose note started longest ago. */
+        OLDEST,
+        /** The voice with the least energy left. */
+        QUIETEST
+    }
+
+    private final GuitarString[] voices;
+    /* The note each voice is playing, or -1 if it is free. */
+    private final int[] notes;
+    /* When each voice was last plucked, counted in noteOn() calls. */
+    private final long[] startedAt;
+    private final Stealing stealing;
+    private final double[] scratch;
+    private long clock;
+    private long steals;
+
+    /**
+     * Creates SIZE voices that can play any frequency down to
+     * LOWESTFREQUENCY, rendering up to MAXBLOCK samples per render() call.
+     */
+    public VoicePool(int size, double lowestFrequency, int maxBlock, Stealing stealing) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("size must be positive: " + size);
+        }
+        voices = new GuitarString[size];
+        notes = new int[size];
+        startedAt = new long[size];
+        for (int i = 0; i < size; i++) {
+            voices[i] = new GuitarString(lowestFrequency, lowestFrequency);
+            notes[i] = -1;
+        }
+        this.stealing = stealing;
+        scratch = new double[maxBlock];
+    }
+
+    public int size() {
+        return voices.length;
+    }
+
+    /** Returns the number of voices playing a note. */
+    public int busy() {
+        int count = 0;
+        for (int note : notes) {
+            if (note >= 0) {
+                count += 1;
+            }
+        }
+        return count;
+    }
+
+    /** Returns the number of times a sounding voice was taken for another note. */
+    public long steals() {
+        return steals;
+    }
+
+    /** Starts NOTE, a non-negative id chosen by the caller, sounding at FREQUENCY. */
+    public void noteOn(int note, double frequency) {
+        clock += 1;
+        int v = voiceFor(note);
+        if (notes[v] != note) {
+            voices[v].tune(frequency);
+            notes[v] = note;
+        }
+        voices[v].pluck();
+        startedAt[v] = clock;
+    }
+
+    /* The voice already playing NOTE, else a free one, else a stolen one. */
+    private int voiceFor(int note) {
+        int free = -1;
+        for (int i = 0; i < voices.length; i++) {
+            if (notes[i] == note) {
+                return i;
+            }
+            if (free < 0 && notes[i] < 0) {
+                free = i;
+            }
+        }
+        if (free >= 0) {
+            return free;
+        }
+        steals += 1;
+        int victim = 0;
+        for (int i = 1; i < voices.length; i++) {
+            boolean better = stealing == Stealing.OLDEST
+                ? startedAt[i] < startedAt[victim]
+                : voices[i].energy() < voices[victim].energy();
+            if (better) {
+                victim = i;
+            }
+        }
+        return victim;
+    }
+
+    /**
+     * Stores the next N samples of all the voices, summed, in OUT[0] through
+     * OUT[N - 1], and frees the voices that have gone silent. N must be at
+     * most the pool's maxBlock and the length of OUT.
+     */
+    public void render(double[] out, int n) {
+        if (n < 0 || n > scratch.length || n > out.length) {
+            throw new IllegalArgumentException("Can't render " + n + " samples with a maxBlock of "
+                + scratch.length + " into " + out.length);
+        }
+        Arrays.fill(out, 0, n, 0.0);
+        for (int i = 0; i < voices.length; i++) {
+            if (notes[i] < 0) {
+                continue;
+            }
+            voices[i].ticBlock(scratch, n);
+            for (int k = 0; k < n; k++) {
+                out[k] += scratch[k];
+            }
+            if (voices[i].energy() < Synth.SILENCE) {
+                notes[i] = -1;
+            }
+        }
+    }
+}
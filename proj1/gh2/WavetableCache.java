@@ -0,0 +1,123 @@
+package gh2;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.DoubleFunction;
+
+/**
+ * Pre-rendered notes, keyed by frequency. The first time a frequency is
+ * asked for, a fresh voice from the model is plucked and run until it
+ * falls silent (or for MAX_SECONDS), and its samples are kept. Every later
+ * note at that frequency replays the recording through a WavetableVoice,
+ * which costs about as much as copying the samples.
+ *
+ * Velocity is not part of the key: the string models are linear, so a note
+ * at any velocity is the full-scale recording times velocity / 127, and
+ * players already mix each voice with that gain. Keying on velocity too
+ * would only multiply the renders.
+ *
+ * Replayed notes are identical, pluck noise and all. The cache keeps at most
+ * maxTables recordings and evicts the least recently used one.
+ */
+public class WavetableCache {
+    private static final int SR = 44100;
+    private static final double MAX_SECONDS = 8.0;
+
+    /** One recorded note. */
+    public static final class Wavetable {
+        /* The samples are recorded CHUNK at a time; envelope[k] is the
+         * voice's energy() at the start of chunk k. */
+        static final int CHUNK = 1024;
+
+        /* A recording with no samples, for voices that have none yet. */
+        static final Wavetable EMPTY = new Wavetable(new double[0], new double[0]);
+
+        final double[] samples;
+        final double[] envelope;
+
+        Wavetable(double[] samples, double[] envelope) {
+            this.samples = samples;
+            this.envelope = envelope;
+        }
+
+        /** Returns the number of samples in the recording. */
+        public int length() {
+            return samples.length;
+        }
+
+        double energyAt(int pos) {
+            return pos < samples.length ? envelope[pos / CHUNK] : 0.0;
+        }
+    }
+
+    private final DoubleFunction<Synth> model;
+    private final Map<Double, Wavetable> tables;
+    private int hits;
+    private int misses;
+
+    /** Creates a cache of up to MAXTABLES notes rendered by MODEL, a function from frequency to a new voice. */
+    public WavetableCache(DoubleFunction<Synth> model, int maxTables) {
+        this.model = model;
+        this.tables = new LinkedHashMap<Double, Wavetable>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Double, Wavetable> eldest) {
+                return size() > maxTables;
+            }
+        };
+    }
+
+    /** Returns the recording of a note at FREQUENCY, rendering it if needed. */
+    public Wavetable get(double frequency) {
+        Wavetable t = tables.get(frequency);
+        if (t != null) {
+            hits += 1;
+            return t;
+        }
+        misses += 1;
+        t = render(model.apply(frequency));
+        tables.put(frequency, t);
+        return t;
+    }
+
+    public int hits() {
+        return hits;
+    }
+
+    public int misses() {
+        return misses;
+    }
+
+    /* Records VOICE from a pluck until it goes silent. Sample 0 is the
+     * sample right after the pluck, as a voice's sample() would return. */
+    private static Wavetable render(Synth voice) {
+        int max = (int) (SR * MAX_SECONDS);
+        double[] samples = new double[Wavetable.CHUNK];
+        double[] envelope = new double[8];
+        double[] chunk = new double[Wavetable.CHUNK];
+        voice.pluck();
+        int length = 0;
+        int chunks = 0;
+        double pending = voice.sample();
+        while (length < max && voice.energy() >= Synth.SILENCE) {
+            if (length + Wavetable.CHUNK > samples.length) {
+                samples = Arrays.copyOf(samples, samples.length * 2);
+            }
+            if (chunks == envelope.length) {
+                envelope = Arrays.copyOf(envelope, chunks * 2);
+            }
+            envelope[chunks] = voice.energy();
+            chunks += 1;
+            /* The chunk starts with the sample we already have. */
+            samples[length] = pending;
+            voice.ticBlock(chunk, Wavetable.CHUNK);
+            for (int i = 0; i < Wavetable.CHUNK - 1; i++) {
+                samples[length + 1 + i] = chunk[i];
+            }
+            pending = chunk[Wavetable.CHUNK - 1];
+            length += Wavetable.CHUNK;
+        }
+        return new Wavetable(Arrays.copyOf(samples, length),
+            Arrays.copyOf(envelope, chunks));
+    }
+}
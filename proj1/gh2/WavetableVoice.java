@@ -0,0 +1,68 @@
+package gh2;
+
+import java.util.Arrays;
+
+/**
+ * Plays back a WavetableCache recording. pluck() restarts the recording;
+ * past its end the voice is silent and its energy() is zero.
+ */
+public class WavetableVoice implements Synth {
+    private WavetableCache.Wavetable table;
+    private int pos;
+
+    /* Create a silent voice with no recording, to be given one by setTable(). */
+    public WavetableVoice() {
+        this(WavetableCache.Wavetable.EMPTY);
+    }
+
+    public WavetableVoice(WavetableCache.Wavetable table) {
+        this.table = table;
+        pos = table.length();
+    }
+
+    /* Switch to another recording, which starts playing on the next pluck(). */
+    public void setTable(WavetableCache.Wavetable table) {
+        this.table = table;
+        pos = table.length();
+    }
+
+    @Override
+    public void pluck() {
+        pos = 0;
+    }
+
+    @Override
+    public void tic() {
+        if (pos < table.length()) {
+            pos += 1;
+        }
+    }
+
+    @Override
+    public double sample() {
+        return pos < table.length() ? table.samples[pos] : 0.0;
+    }
+
+    @Override
+    public double energy() {
+        return table.energyAt(pos);
+    }
+
+    @Override
+    public void ticBlock(double[] out, int n) {
+        int m = Math.max(0, Math.min(n, table.length() - pos - 1));
+        System.arraycopy(table.samples, pos + 1, out, 0, m);
+        Arrays.fill(out, m, n, 0.0);
+        pos = Math.min(table.length(), pos + n);
+    }
+
+    @Override
+    public void mix(double[] out, int n, double gain) {
+        int m = Math.max(0, Math.min(n, table.length() - pos - 1));
+        double[] samples = table.samples;
+        for (int i = 0; i < m; i++) {
+            out[i] += gain * samples[pos + 1 + i];
+        }
+        pos = Math.min(table.length(), pos + n);
+    }
+}